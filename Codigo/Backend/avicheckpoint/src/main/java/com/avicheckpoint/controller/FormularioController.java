@@ -2,16 +2,32 @@ package com.avicheckpoint.controller;
 
 import com.avicheckpoint.dto.FormularioRequestDTO;
 import com.avicheckpoint.dto.FormularioResponseDTO;
-import com.avicheckpoint.model.FormularioResposta;
+import com.avicheckpoint.dto.MelhoriaSimuladaDTO;
+import com.avicheckpoint.dto.SimulacaoAnaliseDTO;
+import com.avicheckpoint.dto.SimulacaoRequestDTO;
+import com.avicheckpoint.model.EstatisticasCacheAnalise;
+import com.avicheckpoint.model.LoteAnalise;
+import com.avicheckpoint.model.Reanalise;
+import com.avicheckpoint.model.TarefaAnalise;
+import com.avicheckpoint.model.ResumoFormulario;
+import com.avicheckpoint.model.SituacaoRegras;
+import com.avicheckpoint.service.AnaliseLoteService;
 import com.avicheckpoint.service.AnaliseService;
+import com.avicheckpoint.service.FilaAnaliseService;
 import com.avicheckpoint.service.FormularioService;
+import com.avicheckpoint.service.ReanaliseService;
+import com.avicheckpoint.service.RegrasAnaliseService;
+import com.avicheckpoint.service.SimulacaoService;
 
+import jakarta.validation.Valid;
 import java.util.Map;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.net.URI;
 import java.util.List;
 import java.util.Optional;
 
@@ -30,13 +46,28 @@ public class FormularioController {
     @Autowired
     private AnaliseService analiseService;
     
+    @Autowired
+    private AnaliseLoteService analiseLoteService;
+    
+    @Autowired
+    private FilaAnaliseService filaAnaliseService;
+    
+    @Autowired
+    private RegrasAnaliseService regrasAnaliseService;
+    
+    @Autowired
+    private SimulacaoService simulacaoService;
+    
+    @Autowired
+    private ReanaliseService reanaliseService;
+    
     /**
      * Salva um novo formulário (rascunho ou completo).
      * POST /api/formularios
      */
     @PostMapping
     public ResponseEntity<FormularioResponseDTO> salvarFormulario(
-            @RequestBody FormularioRequestDTO dto) {
+            @Valid @RequestBody FormularioRequestDTO dto) {
         try {
             FormularioResponseDTO resposta = formularioService.salvarFormulario(dto);
             return ResponseEntity.status(HttpStatus.CREATED).body(resposta);
@@ -52,7 +83,7 @@ public class FormularioController {
     @PutMapping("/{formularioId}")
     public ResponseEntity<FormularioResponseDTO> atualizarFormulario(
             @PathVariable String formularioId,
-            @RequestBody FormularioRequestDTO dto) {
+            @Valid @RequestBody FormularioRequestDTO dto) {
         try {
             FormularioResponseDTO resposta = formularioService.atualizarFormulario(
                 formularioId, dto);
@@ -84,9 +115,9 @@ public class FormularioController {
      * GET /api/formularios/produtor/{produtorId}
      */
     @GetMapping("/produtor/{produtorId}")
-    public ResponseEntity<List<FormularioResponseDTO>> buscarFormulariosPorProdutor(
+    public ResponseEntity<List<ResumoFormulario>> buscarFormulariosPorProdutor(
             @PathVariable Integer produtorId) {
-        List<FormularioResponseDTO> formularios = 
+        List<ResumoFormulario> formularios = 
             formularioService.buscarFormulariosPorProdutor(produtorId);
         return ResponseEntity.ok(formularios);
     }
@@ -141,62 +172,168 @@ public class FormularioController {
     }
     
     /**
-     * Analisa um formulário submetido e gera resultado.
+     * Enfileira a análise de um formulário submetido.
+     * Retorna 202 com a tarefa, que pode ser acompanhada pelo endereço em Location,
+     * ou 503 quando a fila de análises está cheia.
      * POST /api/formularios/{formularioId}/analisar
      */
     @PostMapping("/{formularioId}/analisar")
-    public ResponseEntity<FormularioResponseDTO> analisarFormulario(
+    public ResponseEntity<TarefaAnalise> analisarFormulario(
             @PathVariable String formularioId) {
         try {
-            FormularioResposta formularioAnalisado = 
-                analiseService.analisarFormulario(formularioId);
-            
-            FormularioResponseDTO resposta = mapearParaResponse(formularioAnalisado);
-            return ResponseEntity.ok(resposta);
+            return filaAnaliseService.enfileirar(formularioId)
+                .map(tarefa -> ResponseEntity
+                    .accepted()
+                    .location(URI.create("/api/formularios/analises/" + tarefa.getTarefaId()))
+                    .body(tarefa))
+                .orElse(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "5")
+                    .build());
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().build();
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
     
     /**
-     * Endpoint para teste de conectividade.
-     * GET /api/formularios/health
+     * Simula a análise do formulário com respostas hipotéticas, sem gravar nada.
+     * POST /api/formularios/{formularioId}/simulacao
      */
-    @GetMapping("/health")
-    public ResponseEntity<String> health() {
-        return ResponseEntity.ok("Formulários API funcionando!");
+    @PostMapping("/{formularioId}/simulacao")
+    public ResponseEntity<SimulacaoAnaliseDTO> simularAnalise(
+            @PathVariable String formularioId,
+            @RequestBody SimulacaoRequestDTO dto) {
+        try {
+            return ResponseEntity.ok(simulacaoService.simular(formularioId, dto.getAlteracoes()));
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
     }
     
     /**
-     * Método auxiliar para mapear FormularioResposta para FormularioResponseDTO.
+     * Lista as trocas de uma única resposta que mais aumentam a pontuação.
+     * GET /api/formularios/{formularioId}/simulacao/melhorias?limite=10
+     * O limite deve ser ao menos 1.
      */
-    private FormularioResponseDTO mapearParaResponse(FormularioResposta formulario) {
-        FormularioResponseDTO dto = new FormularioResponseDTO();
-        dto.setFormularioId(formulario.getFormularioId());
-        dto.setProdutorId(formulario.getProdutorId());
-        dto.setDataPreenchimento(formulario.getDataPreenchimento());
-        dto.setDataAtualizacao(formulario.getDataAtualizacao());
-        dto.setStatus(formulario.getStatus());
-        dto.setRespostas(formulario.getRespostas());
-        dto.setResultado(formulario.getResultado());
-        dto.setCompleto(isFormularioCompleto(formulario.getRespostas()));
-        
-        return dto;
+    @GetMapping("/{formularioId}/simulacao/melhorias")
+    public ResponseEntity<List<MelhoriaSimuladaDTO>> sugerirMelhorias(
+            @PathVariable String formularioId,
+            @RequestParam(defaultValue = "10") int limite) {
+        if (limite < 1) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            return ResponseEntity.ok(simulacaoService.sugerirMelhorias(formularioId, limite));
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
     }
     
     /**
-     * Verifica se um formulário está completo.
+     * Consulta as estatísticas do cache de resultados de análise.
+     * GET /api/formularios/analises/cache
      */
-    private boolean isFormularioCompleto(Map<String, Object> respostas) {
-        if (respostas == null) {
-            return false;
+    @GetMapping("/analises/cache")
+    public ResponseEntity<EstatisticasCacheAnalise> consultarCacheAnalises() {
+        return ResponseEntity.ok(analiseService.estatisticasCache());
+    }
+    
+    /**
+     * Consulta o andamento de uma análise enfileirada.
+     * GET /api/formularios/analises/{tarefaId}
+     */
+    @GetMapping("/analises/{tarefaId}")
+    public ResponseEntity<TarefaAnalise> consultarAnalise(@PathVariable String tarefaId) {
+        return filaAnaliseService.buscarTarefa(tarefaId)
+            .map(ResponseEntity::ok)
+            .orElse(ResponseEntity.notFound().build());
+    }
+    
+    /**
+     * Inicia a análise em lote de todos os formulários submetidos.
+     * Se já houver um lote em execução, retorna o seu progresso.
+     * POST /api/formularios/analisar-lote
+     */
+    @PostMapping("/analisar-lote")
+    public ResponseEntity<LoteAnalise> iniciarAnaliseEmLote() {
+        LoteAnalise lote = analiseLoteService.iniciar();
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(lote);
+    }
+    
+    /**
+     * Consulta o progresso do lote de análise atual ou do último executado.
+     * GET /api/formularios/analisar-lote
+     */
+    @GetMapping("/analisar-lote")
+    public ResponseEntity<LoteAnalise> consultarAnaliseEmLote() {
+        return analiseLoteService.consultar()
+            .map(ResponseEntity::ok)
+            .orElse(ResponseEntity.notFound().build());
+    }
+    
+    /**
+     * Reanalisa os formulários cujo resultado foi gerado por outra versão das regras.
+     * Se já houver uma reanálise em execução, retorna o seu progresso.
+     * POST /api/formularios/reanalisar
+     */
+    @PostMapping("/reanalisar")
+    public ResponseEntity<Reanalise> iniciarReanalise() {
+        Reanalise reanalise = reanaliseService.iniciar();
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(reanalise);
+    }
+    
+    /**
+     * Consulta o progresso da reanálise atual ou da última executada.
+     * GET /api/formularios/reanalisar
+     */
+    @GetMapping("/reanalisar")
+    public ResponseEntity<Reanalise> consultarReanalise() {
+        return reanaliseService.consultar()
+            .map(ResponseEntity::ok)
+            .orElse(ResponseEntity.notFound().build());
+    }
+    
+    /**
+     * Consulta a versão das regras de análise em uso.
+     * GET /api/formularios/regras
+     */
+    @GetMapping("/regras")
+    public ResponseEntity<SituacaoRegras> consultarRegras() {
+        return ResponseEntity.ok(regrasAnaliseService.consultar());
+    }
+    
+    /**
+     * Recarrega as regras de análise a partir do arquivo configurado.
+     * Se a tabela for recusada, retorna 400 com o motivo e a versão que continua ativa.
+     * POST /api/formularios/regras/recarregar
+     */
+    @PostMapping("/regras/recarregar")
+    public ResponseEntity<SituacaoRegras> recarregarRegras() {
+        try {
+            return ResponseEntity.ok(regrasAnaliseService.recarregar());
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(regrasAnaliseService.consultar());
         }
-        
-        return respostas.containsKey("saude") && 
-               respostas.containsKey("nutricao") && 
-               respostas.containsKey("avaliacao") && 
-               respostas.containsKey("doencas");
+    }
+    
+    /**
+     * Volta para a versão das regras usada antes da última troca.
+     * POST /api/formularios/regras/reverter
+     */
+    @PostMapping("/regras/reverter")
+    public ResponseEntity<SituacaoRegras> reverterRegras() {
+        try {
+            return ResponseEntity.ok(regrasAnaliseService.reverter());
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    /**
+     * Endpoint para teste de conectividade.
+     * GET /api/formularios/health
+     */
+    @GetMapping("/health")
+    public ResponseEntity<String> health() {
+        return ResponseEntity.ok("Formulários API funcionando!");
     }
 }
\ No newline at end of file
@@ -45,13 +45,16 @@ public class RecomendacaoController {
      * 
      * Parâmetros:
      * - raioKm: raio de busca em quilômetros (padrão: 100)
-     * - limite: número máximo de recomendações (padrão: 5)
+     * - limite: número máximo de recomendações (padrão: 5; ao menos 1, no máximo 100)
      */
     @GetMapping("/produtor/{produtorId}/customizado")
     public ResponseEntity<List<VeterinarioRecomendadoDTO>> recomendarVeterinariosCustomizado(
             @PathVariable Integer produtorId,
             @RequestParam(defaultValue = "100.0") Double raioKm,
             @RequestParam(defaultValue = "5") Integer limite) {
+        if (limite < 1) {
+            return ResponseEntity.badRequest().build();
+        }
         try {
             List<VeterinarioRecomendadoDTO> recomendacoes = 
                 recomendacaoService.recomendarVeterinarios(produtorId, raioKm, limite);
@@ -123,7 +126,7 @@ public class RecomendacaoController {
             List<VeterinarioRecomendadoDTO> disponiveis = emergencia.stream()
                     .filter(vet -> vet.getDisponivel())
                     .toList();
-                    
+            
             return ResponseEntity.ok(disponiveis);
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
@@ -35,6 +35,29 @@ public class DashboardProdutorDTO {
     // Constructors
     public DashboardProdutorDTO() {}
     
+    /**
+     * Calcula tendência entre duas pontuações.
+     */
+    public static String calcularTendencia(Integer pontuacao1, Integer pontuacao2) {
+        if (pontuacao1 == null || pontuacao2 == null) return "desconhecida";
+        
+        int diferenca = pontuacao2 - pontuacao1;
+        if (diferenca > 5) return "crescente";
+        if (diferenca < -5) return "decrescente";
+        return "estavel";
+    }
+    
+    /**
+     * Determina categoria baseada na pontuação.
+     */
+    public static String determinarCategoria(Integer pontuacao) {
+        if (pontuacao == null) return "Não avaliado";
+        if (pontuacao >= 80) return "Excelente";
+        if (pontuacao >= 60) return "Bom";
+        if (pontuacao >= 40) return "Atenção";
+        return "Crítico";
+    }
+    
     // Getters and Setters
     public Integer getProdutorId() {
         return produtorId;
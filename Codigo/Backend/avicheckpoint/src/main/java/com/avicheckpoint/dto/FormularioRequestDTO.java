@@ -1,6 +1,7 @@
 package com.avicheckpoint.dto;
 
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import java.util.Map;
 
 /**
@@ -25,6 +26,7 @@ public class FormularioRequestDTO {
      * }
      */
     @NotNull(message = "Dados do formulário são obrigatórios")
+    @Size(max = 10000, message = "Dados do formulário muito extensos")
     private Map<String, Object> respostas;
     
     /**
@@ -1,5 +1,6 @@
 package com.avicheckpoint.dto;
 
+import com.avicheckpoint.model.PrioridadeAnalise;
 import com.avicheckpoint.model.ResultadoAnalise;
 import com.avicheckpoint.model.StatusFormulario;
 import java.time.LocalDateTime;
@@ -16,6 +17,7 @@ public class FormularioResponseDTO {
     private LocalDateTime dataPreenchimento;
     private LocalDateTime dataAtualizacao;
     private StatusFormulario status;
+    private PrioridadeAnalise prioridade;
     private Map<String, Object> respostas;
     private ResultadoAnalise resultado;
     private boolean completo;
@@ -72,6 +74,14 @@ public class FormularioResponseDTO {
         this.status = status;
     }
     
+    public PrioridadeAnalise getPrioridade() {
+        return prioridade;
+    }
+    
+    public void setPrioridade(PrioridadeAnalise prioridade) {
+        this.prioridade = prioridade;
+    }
+    
     public Map<String, Object> getRespostas() {
         return respostas;
     }
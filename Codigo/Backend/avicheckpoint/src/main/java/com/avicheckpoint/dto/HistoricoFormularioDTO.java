@@ -1,5 +1,6 @@
 package com.avicheckpoint.dto;
 
+import com.avicheckpoint.model.ResumoFormulario;
 import com.avicheckpoint.model.StatusFormulario;
 
 import java.time.LocalDateTime;
@@ -31,6 +32,25 @@ public class HistoricoFormularioDTO {
         this.pontuacaoGeral = pontuacaoGeral;
     }
     
+    /**
+     * Cria o item de histórico a partir do resumo do formulário.
+     */
+    public static HistoricoFormularioDTO de(ResumoFormulario resumo) {
+        HistoricoFormularioDTO dto = new HistoricoFormularioDTO(resumo.getFormularioId(),
+                resumo.getDataPreenchimento(), resumo.getStatus(), null);
+        dto.setCompleto(resumo.isCompleto());
+        
+        if (resumo.possuiResultado()) {
+            dto.setPontuacaoGeral(resumo.getPontuacaoGeral());
+            dto.setPanoramaGeral(resumo.getPanoramaGeral());
+            dto.setTotalPontosFortes(resumo.getTotalPontosFortes());
+            dto.setTotalPontosAMelhorar(resumo.getTotalPontosAMelhorar());
+            dto.setTotalAlertas(resumo.getTotalAlertas());
+        }
+        
+        return dto;
+    }
+    
     // Getters and Setters
     public String getFormularioId() {
         return formularioId;
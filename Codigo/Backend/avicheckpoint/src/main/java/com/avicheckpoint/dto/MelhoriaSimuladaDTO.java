@@ -0,0 +1,95 @@
+package com.avicheckpoint.dto;
+
+/**
+ * DTO com o efeito de trocar uma única resposta do formulário.
+ * As variações indicam quantos pontos fortes, pontos a melhorar e alertas
+ * a troca acrescenta (positivo) ou remove (negativo).
+ */
+public class MelhoriaSimuladaDTO {
+    
+    private String secao;
+    private String pergunta;
+    private Object respostaAtual;
+    private Object respostaSugerida;
+    private int pontuacao;
+    private int ganho;
+    private int variacaoPontosFortes;
+    private int variacaoPontosAMelhorar;
+    private int variacaoAlertas;
+    
+    // Constructors
+    public MelhoriaSimuladaDTO() {}
+    
+    // Getters and Setters
+    public String getSecao() {
+        return secao;
+    }
+    
+    public void setSecao(String secao) {
+        this.secao = secao;
+    }
+    
+    public String getPergunta() {
+        return pergunta;
+    }
+    
+    public void setPergunta(String pergunta) {
+        this.pergunta = pergunta;
+    }
+    
+    public Object getRespostaAtual() {
+        return respostaAtual;
+    }
+    
+    public void setRespostaAtual(Object respostaAtual) {
+        this.respostaAtual = respostaAtual;
+    }
+    
+    public Object getRespostaSugerida() {
+        return respostaSugerida;
+    }
+    
+    public void setRespostaSugerida(Object respostaSugerida) {
+        this.respostaSugerida = respostaSugerida;
+    }
+    
+    public int getPontuacao() {
+        return pontuacao;
+    }
+    
+    public void setPontuacao(int pontuacao) {
+        this.pontuacao = pontuacao;
+    }
+    
+    public int getGanho() {
+        return ganho;
+    }
+    
+    public void setGanho(int ganho) {
+        this.ganho = ganho;
+    }
+    
+    public int getVariacaoPontosFortes() {
+        return variacaoPontosFortes;
+    }
+    
+    public void setVariacaoPontosFortes(int variacaoPontosFortes) {
+        this.variacaoPontosFortes = variacaoPontosFortes;
+    }
+    
+    public int getVariacaoPontosAMelhorar() {
+        return variacaoPontosAMelhorar;
+    }
+    
+    public void setVariacaoPontosAMelhorar(int variacaoPontosAMelhorar) {
+        this.variacaoPontosAMelhorar = variacaoPontosAMelhorar;
+    }
+    
+    public int getVariacaoAlertas() {
+        return variacaoAlertas;
+    }
+    
+    public void setVariacaoAlertas(int variacaoAlertas) {
+        this.variacaoAlertas = variacaoAlertas;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,60 @@
+package com.avicheckpoint.dto;
+
+import com.avicheckpoint.model.ResultadoAnalise;
+
+/**
+ * DTO com o resultado de uma simulação: a análise do formulário com as
+ * respostas hipotéticas, comparada à análise das respostas atuais.
+ */
+public class SimulacaoAnaliseDTO {
+    
+    private String formularioId;
+    private Integer pontuacaoAtual;
+    private Integer pontuacaoSimulada;
+    private Integer diferenca;
+    private ResultadoAnalise resultado;
+    
+    // Constructors
+    public SimulacaoAnaliseDTO() {}
+    
+    // Getters and Setters
+    public String getFormularioId() {
+        return formularioId;
+    }
+    
+    public void setFormularioId(String formularioId) {
+        this.formularioId = formularioId;
+    }
+    
+    public Integer getPontuacaoAtual() {
+        return pontuacaoAtual;
+    }
+    
+    public void setPontuacaoAtual(Integer pontuacaoAtual) {
+        this.pontuacaoAtual = pontuacaoAtual;
+    }
+    
+    public Integer getPontuacaoSimulada() {
+        return pontuacaoSimulada;
+    }
+    
+    public void setPontuacaoSimulada(Integer pontuacaoSimulada) {
+        this.pontuacaoSimulada = pontuacaoSimulada;
+    }
+    
+    public Integer getDiferenca() {
+        return diferenca;
+    }
+    
+    public void setDiferenca(Integer diferenca) {
+        this.diferenca = diferenca;
+    }
+    
+    public ResultadoAnalise getResultado() {
+        return resultado;
+    }
+    
+    public void setResultado(ResultadoAnalise resultado) {
+        this.resultado = resultado;
+    }
+}
\ No newline at end of file
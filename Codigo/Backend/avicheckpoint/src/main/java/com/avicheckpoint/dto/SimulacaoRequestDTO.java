@@ -0,0 +1,31 @@
+package com.avicheckpoint.dto;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * DTO com as respostas hipotéticas de uma simulação.
+ * Segue a estrutura das respostas do formulário, apenas com as perguntas alteradas;
+ * uma pergunta com valor nulo é tratada como não respondida.
+ * 
+ * {
+ *   "saude": {"vacinacao": "sim"},
+ *   "nutricao": {"armazenamento": "sim"}
+ * }
+ */
+public class SimulacaoRequestDTO {
+    
+    private Map<String, Map<String, Object>> alteracoes = new HashMap<>();
+    
+    // Constructors
+    public SimulacaoRequestDTO() {}
+    
+    // Getters and Setters
+    public Map<String, Map<String, Object>> getAlteracoes() {
+        return alteracoes;
+    }
+    
+    public void setAlteracoes(Map<String, Map<String, Object>> alteracoes) {
+        this.alteracoes = alteracoes;
+    }
+}
\ No newline at end of file
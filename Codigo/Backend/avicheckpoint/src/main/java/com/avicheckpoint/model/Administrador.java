@@ -22,6 +22,13 @@ public class Administrador extends Usuario {
         return "ADMINISTRADOR";
     }
     
+    @Override
+    public Administrador copiar() {
+        Administrador copia = new Administrador();
+        copiarPara(copia);
+        return copia;
+    }
+    
     @Override
     public String toString() {
         return "Administrador{" +
@@ -0,0 +1,72 @@
+package com.avicheckpoint.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Alerta identificado na análise de um formulário.
+ * O texto é obtido pelo código no {@link CatalogoMensagens}; a gravidade vem
+ * da regra que gerou o alerta, sem depender do texto.
+ */
+public class AlertaAnalise {
+    
+    public enum Severidade {
+        ATENCAO,
+        CRITICO
+    }
+    
+    private String codigo;
+    private String secao;
+    private Severidade severidade;
+    
+    // Texto do código no idioma da exibição; preenchido só na cópia exibida, não é gravado
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String mensagem;
+    
+    // Constructors
+    public AlertaAnalise() {}
+    
+    public AlertaAnalise(String codigo, String secao, Severidade severidade) {
+        this.codigo = codigo;
+        this.secao = secao;
+        this.severidade = severidade;
+    }
+    
+    @JsonIgnore
+    public boolean isCritico() {
+        return severidade == Severidade.CRITICO;
+    }
+    
+    // Getters and Setters
+    public String getCodigo() {
+        return codigo;
+    }
+    
+    public void setCodigo(String codigo) {
+        this.codigo = codigo;
+    }
+    
+    public String getSecao() {
+        return secao;
+    }
+    
+    public void setSecao(String secao) {
+        this.secao = secao;
+    }
+    
+    public Severidade getSeveridade() {
+        return severidade;
+    }
+    
+    public void setSeveridade(Severidade severidade) {
+        this.severidade = severidade;
+    }
+    
+    public String getMensagem() {
+        return mensagem;
+    }
+    
+    public void setMensagem(String mensagem) {
+        this.mensagem = mensagem;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,141 @@
+package com.avicheckpoint.model;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Catálogo das mensagens da análise, por idioma.
+ *
+ * Os resultados guardam apenas códigos (ex.: "saude.vacinacao.nao"); o texto
+ * é resolvido na exibição, no idioma pedido. O idioma padrão é pt-BR
+ * (mensagens/analise.properties); os demais ficam em
+ * mensagens/analise_{idioma}.properties e, para códigos que não traduzem,
+ * usa-se o texto padrão. Um valor que não é código conhecido é exibido como
+ * está, o que mantém legíveis os resultados gravados antes dos códigos.
+ *
+ * Textos trazidos pela tabela de regras ativa substituem os do idioma padrão.
+ * Eles ficam à parte e se acumulam a cada troca de tabela: os da tabela ativa
+ * prevalecem, mas códigos que só uma tabela anterior definia continuam com o
+ * seu texto, já que resultados gravados com aquelas regras ainda os usam.
+ */
+public final class CatalogoMensagens {
+    
+    public static final Locale IDIOMA_PADRAO = Locale.forLanguageTag("pt-BR");
+    
+    private static final String ARQUIVO = "mensagens/analise";
+    
+    private static final Map<String, String> PADRAO = Map.copyOf(ler(ARQUIVO + ".properties"));
+    private static final Map<String, Map<String, String>> POR_IDIOMA = new ConcurrentHashMap<>();
+    
+    // Textos das tabelas de regras já ativadas; os da ativa por cima
+    private static volatile Map<String, String> mensagensRegras = Map.of();
+    
+    private CatalogoMensagens() {}
+    
+    /**
+     * Texto de um código no idioma informado.
+     */
+    public static String mensagem(String codigo, Locale idioma) {
+        if (codigo == null) {
+            return null;
+        }
+        if (idioma != null && !idioma.getLanguage().equals(IDIOMA_PADRAO.getLanguage())) {
+            String traducao = traducoes(idioma.getLanguage()).get(codigo);
+            if (traducao != null) {
+                return traducao;
+            }
+        }
+        String daRegra = mensagensRegras.get(codigo);
+        return daRegra != null ? daRegra : PADRAO.getOrDefault(codigo, codigo);
+    }
+    
+    public static List<String> mensagens(List<String> codigos, Locale idioma) {
+        if (codigos == null) {
+            return null;
+        }
+        List<String> mensagens = new ArrayList<>(codigos.size());
+        for (String codigo : codigos) {
+            mensagens.add(mensagem(codigo, idioma));
+        }
+        return mensagens;
+    }
+    
+    /**
+     * Cópia do resultado com os códigos substituídos pelos textos no idioma informado.
+     */
+    public static ResultadoAnalise renderizar(ResultadoAnalise resultado, Locale idioma) {
+        if (resultado == null) {
+            return null;
+        }
+        ResultadoAnalise renderizado = resultado.copiar();
+        renderizado.setPanorama(mensagens(resultado.getPanorama(), idioma));
+        renderizado.setPontosFortes(mensagens(resultado.getPontosFortes(), idioma));
+        renderizado.setMelhorias(mensagens(resultado.getMelhorias(), idioma));
+        renderizado.setComentarios(mensagens(resultado.getComentarios(), idioma));
+        renderizado.setAlertas(alertas(resultado.getAlertas(), idioma));
+        return renderizado;
+    }
+    
+    /**
+     * Cópias dos alertas com o texto do código no idioma informado; os
+     * alertas do resultado não são alterados, pois podem estar em cache.
+     */
+    public static List<AlertaAnalise> alertas(List<AlertaAnalise> alertas, Locale idioma) {
+        if (alertas == null) {
+            return null;
+        }
+        List<AlertaAnalise> renderizados = new ArrayList<>(alertas.size());
+        for (AlertaAnalise alerta : alertas) {
+            AlertaAnalise renderizado = new AlertaAnalise(alerta.getCodigo(), alerta.getSecao(), alerta.getSeveridade());
+            renderizado.setMensagem(mensagem(alerta.getCodigo(), idioma));
+            renderizados.add(renderizado);
+        }
+        return renderizados;
+    }
+    
+    /**
+     * Verifica se o código tem texto no catálogo do idioma padrão, sem contar
+     * os textos da tabela de regras ativa.
+     */
+    public static boolean possui(String codigo) {
+        return PADRAO.containsKey(codigo);
+    }
+    
+    /**
+     * Acrescenta os textos da tabela de regras ativa (por código), que
+     * prevalecem sobre os do idioma padrão e sobre os de tabelas anteriores.
+     */
+    public static synchronized void mesclarMensagensRegras(Map<String, String> mensagens) {
+        Map<String, String> mescladas = new HashMap<>(mensagensRegras);
+        mescladas.putAll(mensagens);
+        mensagensRegras = Map.copyOf(mescladas);
+    }
+    
+    private static Map<String, String> traducoes(String idioma) {
+        return POR_IDIOMA.computeIfAbsent(idioma, i -> ler(ARQUIVO + "_" + i + ".properties"));
+    }
+    
+    private static Map<String, String> ler(String recurso) {
+        Map<String, String> mensagens = new ConcurrentHashMap<>();
+        try (InputStream entrada = CatalogoMensagens.class.getClassLoader().getResourceAsStream(recurso)) {
+            if (entrada == null) {
+                return mensagens;
+            }
+            Properties propriedades = new Properties();
+            propriedades.load(new InputStreamReader(entrada, StandardCharsets.UTF_8));
+            propriedades.forEach((codigo, texto) -> mensagens.put((String) codigo, (String) texto));
+            return mensagens;
+        } catch (IOException e) {
+            throw new RuntimeException("Erro ao carregar catálogo de mensagens: " + e.getMessage(), e);
+        }
+    }
+}
\ No newline at end of file
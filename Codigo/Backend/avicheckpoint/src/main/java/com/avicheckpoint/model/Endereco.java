@@ -31,6 +31,10 @@ public class Endereco {
     @Size(min = 2, max = 100, message = "Cidade deve ter entre 2 e 100 caracteres")
     private String cidade;
     
+    // Coordenadas do endereço; quando ausentes, ele é localizado pelo município (ver Geolocalizacao)
+    private Double latitude;
+    private Double longitude;
+    
     // Constructors
     public Endereco() {}
     
@@ -93,6 +97,29 @@ public class Endereco {
         this.cidade = cidade;
     }
     
+    public Double getLatitude() {
+        return latitude;
+    }
+    
+    public void setLatitude(Double latitude) {
+        this.latitude = latitude;
+    }
+    
+    public Double getLongitude() {
+        return longitude;
+    }
+    
+    public void setLongitude(Double longitude) {
+        this.longitude = longitude;
+    }
+    
+    public Endereco copiar() {
+        Endereco copia = new Endereco(enderecoId, enderecoCEP, enderecoNumero, enderecoComplemento, estado, cidade);
+        copia.latitude = latitude;
+        copia.longitude = longitude;
+        return copia;
+    }
+    
     @Override
     public String toString() {
         return "Endereco{" +
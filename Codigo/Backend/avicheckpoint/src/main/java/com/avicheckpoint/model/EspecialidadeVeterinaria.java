@@ -0,0 +1,38 @@
+package com.avicheckpoint.model;
+
+/**
+ * Especialidades reconhecidas no perfil de um veterinário (bio e
+ * especialidades declaradas), cada uma pelo termo que a identifica. A ordem
+ * das constantes é a ordem de exibição.
+ */
+public enum EspecialidadeVeterinaria {
+    
+    AVICULTURA("Avicultura", "avicultura"),
+    MEDICINA_AVES("Medicina de Aves", "aves"),
+    NUTRICAO_ANIMAL("Nutrição Animal", "nutrição"),
+    REPRODUCAO_ANIMAL("Reprodução Animal", "reprodução"),
+    CLINICA_GERAL("Clínica Geral", "clínica");
+    
+    private final String nome;
+    private final String termo;
+    
+    EspecialidadeVeterinaria(String nome, String termo) {
+        this.nome = nome;
+        this.termo = termo;
+    }
+    
+    public String getNome() {
+        return nome;
+    }
+    
+    public String getTermo() {
+        return termo;
+    }
+    
+    /**
+     * Bit da especialidade na máscara de {@link PerfilVeterinario}.
+     */
+    public int getBit() {
+        return 1 << ordinal();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,222 @@
+package com.avicheckpoint.model;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Esquema das perguntas de múltipla escolha do formulário e codificação
+ * das respostas em {@link RespostasCodificadas}.
+ *
+ * Cada pergunta ocupa um byte: 0 quando não respondida e, nas perguntas de
+ * resposta única, a posição da resposta mais 1. Nas perguntas de várias
+ * respostas o byte guarda o conjunto marcado como máscara de bits mais 1,
+ * desde que a lista esteja na ordem do esquema e sem repetições; do contrário
+ * a lista vai para os extras, para que a decodificação devolva exatamente o
+ * que foi enviado. O esquema faz parte do formato gravado: novas perguntas ou
+ * respostas devem ser acrescentadas ao final, com nova versão.
+ */
+public final class EsquemaRespostas {
+    
+    public static final int VERSAO = 1;
+    
+    private static final String[] SECOES = {"saude", "nutricao", "avaliacao", "doencas"};
+    private static final String[] SIM_NAO = {"sim", "nao"};
+    
+    private record Pergunta(int secao, String chave, String[] respostas, boolean multipla, List<?>[] conjuntos) {}
+    
+    private static final Pergunta[] PERGUNTAS = {
+        unica(0, "sinaisDoenca", SIM_NAO),
+        multipla(0, "sinaisClinicos", "semAlteracoes", "espirros", "diarreia", "apatia", "quedaProducao"),
+        unica(0, "vacinacao", SIM_NAO),
+        unica(0, "quarentena", SIM_NAO),
+        unica(0, "avesSilvestres", SIM_NAO),
+        unica(1, "tipoAlimentacao", "racaoIndustrial", "comidaCaseira", "sobrasAlimentos"),
+        unica(1, "armazenamento", SIM_NAO),
+        unica(1, "fungosBolor", SIM_NAO),
+        unica(2, "registrosZootecnicos", SIM_NAO),
+        unica(2, "fotoperíodo", SIM_NAO),
+        unica(2, "qualidadeCasca", "semAlteracao", "rachaduras", "rugosa"),
+        unica(2, "limpezaOvos", "semAlteracao", "sujidades"),
+        unica(3, "mortesRepentinas", SIM_NAO),
+        unica(3, "quedaProducaoRepentina", SIM_NAO),
+        unica(3, "sintomasNeurologicos", SIM_NAO),
+        unica(3, "sintomasRespiratorios", SIM_NAO),
+        unica(3, "diarreiaVerde", SIM_NAO),
+        unica(3, "contatoAvesSilvestres", SIM_NAO)
+    };
+    
+    private static final Map<String, Integer> POSICOES = new HashMap<>();
+    
+    static {
+        for (int i = 0; i < PERGUNTAS.length; i++) {
+            POSICOES.put(SECOES[PERGUNTAS[i].secao()] + "/" + PERGUNTAS[i].chave(), i);
+        }
+    }
+    
+    private EsquemaRespostas() {}
+    
+    private static Pergunta unica(int secao, String chave, String... respostas) {
+        return new Pergunta(secao, chave, respostas, false, null);
+    }
+    
+    /**
+     * Pergunta de várias respostas; as listas de cada combinação são
+     * montadas uma única vez e compartilhadas (imutáveis).
+     */
+    private static Pergunta multipla(int secao, String chave, String... respostas) {
+        List<?>[] conjuntos = new List<?>[1 << respostas.length];
+        for (int mascara = 0; mascara < conjuntos.length; mascara++) {
+            List<String> conjunto = new ArrayList<>();
+            for (int i = 0; i < respostas.length; i++) {
+                if ((mascara & (1 << i)) != 0) {
+                    conjunto.add(respostas[i]);
+                }
+            }
+            conjuntos[mascara] = List.copyOf(conjunto);
+        }
+        return new Pergunta(secao, chave, respostas, true, conjuntos);
+    }
+    
+    /**
+     * Posição da pergunta no esquema, ou -1 se ela não for codificada.
+     */
+    public static int posicao(String secao, String pergunta) {
+        return POSICOES.getOrDefault(secao + "/" + pergunta, -1);
+    }
+    
+    /**
+     * Indica se a pergunta na posição informada é de múltipla escolha.
+     */
+    public static boolean isMultipla(int posicao) {
+        return posicao >= 0 && PERGUNTAS[posicao].multipla();
+    }
+    
+    static int indiceSecao(String secao) {
+        for (int i = 0; i < SECOES.length; i++) {
+            if (SECOES[i].equals(secao)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+    
+    /**
+     * Valor de um código: a resposta (String) ou a lista imutável de respostas.
+     */
+    static Object decodificarValor(int posicao, byte codigo) {
+        if (codigo == 0) {
+            return null;
+        }
+        Pergunta pergunta = PERGUNTAS[posicao];
+        return pergunta.multipla() ? pergunta.conjuntos()[codigo - 1] : pergunta.respostas()[codigo - 1];
+    }
+    
+    /**
+     * Codifica o mapa de respostas recebido do frontend.
+     */
+    @SuppressWarnings("unchecked")
+    public static RespostasCodificadas codificar(Map<String, Object> respostas) {
+        if (respostas == null) {
+            return null;
+        }
+        
+        byte[] codigos = new byte[PERGUNTAS.length + 1];
+        Map<String, Object> extras = new HashMap<>();
+        for (Map.Entry<String, Object> secao : respostas.entrySet()) {
+            int indice = indiceSecao(secao.getKey());
+            if (indice < 0 || !(secao.getValue() instanceof Map)) {
+                extras.put(secao.getKey(), secao.getValue());
+                continue;
+            }
+            
+            codigos[0] |= (byte) (1 << indice);
+            Map<String, Object> naoCodificadas = new HashMap<>();
+            for (Map.Entry<String, Object> resposta : ((Map<String, Object>) secao.getValue()).entrySet()) {
+                int posicao = posicao(secao.getKey(), resposta.getKey());
+                int codigo = posicao >= 0 ? codificarValor(PERGUNTAS[posicao], resposta.getValue()) : 0;
+                if (codigo > 0) {
+                    codigos[posicao + 1] = (byte) codigo;
+                } else {
+                    naoCodificadas.put(resposta.getKey(), resposta.getValue());
+                }
+            }
+            if (!naoCodificadas.isEmpty()) {
+                extras.put(secao.getKey(), naoCodificadas);
+            }
+        }
+        return new RespostasCodificadas(VERSAO, codigos, extras.isEmpty() ? null : extras);
+    }
+    
+    /**
+     * Reconstrói o mapa de respostas. Cada chamada devolve um mapa novo.
+     */
+    @SuppressWarnings("unchecked")
+    public static Map<String, Object> decodificar(RespostasCodificadas codificadas) {
+        if (codificadas == null) {
+            return null;
+        }
+        if (codificadas.getEsquema() != VERSAO || codificadas.getCodigos() == null
+                || codificadas.getCodigos().length != PERGUNTAS.length + 1) {
+            throw new RuntimeException("Versão do esquema de respostas não suportada: " + codificadas.getEsquema());
+        }
+        
+        byte[] codigos = codificadas.getCodigos();
+        Map<String, Object> respostas = new HashMap<>();
+        for (int i = 0; i < SECOES.length; i++) {
+            if ((codigos[0] & (1 << i)) != 0) {
+                respostas.put(SECOES[i], new HashMap<String, Object>());
+            }
+        }
+        for (int i = 0; i < PERGUNTAS.length; i++) {
+            Object valor = decodificarValor(i, codigos[i + 1]);
+            if (valor != null) {
+                Map<String, Object> secao = (Map<String, Object>) respostas.get(SECOES[PERGUNTAS[i].secao()]);
+                secao.put(PERGUNTAS[i].chave(), valor instanceof List<?> lista ? new ArrayList<>(lista) : valor);
+            }
+        }
+        
+        if (codificadas.getExtras() != null) {
+            codificadas.getExtras().forEach((chave, valor) -> {
+                if (valor instanceof Map<?, ?> extrasSecao) {
+                    Map<String, Object> secao = (Map<String, Object>) respostas.computeIfAbsent(chave, c -> new HashMap<String, Object>());
+                    secao.putAll((Map<String, Object>) extrasSecao);
+                } else {
+                    respostas.put(chave, valor);
+                }
+            });
+        }
+        return respostas;
+    }
+    
+    private static int codificarValor(Pergunta pergunta, Object valor) {
+        if (!pergunta.multipla()) {
+            return valor instanceof String resposta ? indice(pergunta.respostas(), resposta) + 1 : 0;
+        }
+        if (!(valor instanceof List<?> lista)) {
+            return 0;
+        }
+        int mascara = 0;
+        int anterior = -1;
+        for (Object item : lista) {
+            int indice = item instanceof String resposta ? indice(pergunta.respostas(), resposta) : -1;
+            if (indice <= anterior) {
+                // Resposta desconhecida, repetida ou fora de ordem: manter a lista original
+                return 0;
+            }
+            mascara |= 1 << indice;
+            anterior = indice;
+        }
+        return mascara + 1;
+    }
+    
+    private static int indice(String[] respostas, String resposta) {
+        for (int i = 0; i < respostas.length; i++) {
+            if (respostas[i].equals(resposta)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
\ No newline at end of file
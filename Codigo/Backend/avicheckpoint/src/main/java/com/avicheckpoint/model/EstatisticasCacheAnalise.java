@@ -0,0 +1,78 @@
+package com.avicheckpoint.model;
+
+/**
+ * Estatísticas do cache de resultados de análise.
+ */
+public class EstatisticasCacheAnalise {
+    
+    private int capacidade;
+    private int tamanho;
+    private long acertos;
+    private long falhas;
+    private long descartes;
+    
+    /**
+     * Estatísticas do cache de resultados por seção; nulo nas próprias estatísticas por seção.
+     */
+    private EstatisticasCacheAnalise secoes;
+    
+    // Constructors
+    public EstatisticasCacheAnalise() {}
+    
+    /**
+     * Fração das consultas atendidas pelo cache (0 a 1).
+     */
+    public double getTaxaAcerto() {
+        long consultas = acertos + falhas;
+        return consultas > 0 ? (double) acertos / consultas : 0;
+    }
+    
+    // Getters and Setters
+    public int getCapacidade() {
+        return capacidade;
+    }
+    
+    public void setCapacidade(int capacidade) {
+        this.capacidade = capacidade;
+    }
+    
+    public int getTamanho() {
+        return tamanho;
+    }
+    
+    public void setTamanho(int tamanho) {
+        this.tamanho = tamanho;
+    }
+    
+    public long getAcertos() {
+        return acertos;
+    }
+    
+    public void setAcertos(long acertos) {
+        this.acertos = acertos;
+    }
+    
+    public long getFalhas() {
+        return falhas;
+    }
+    
+    public void setFalhas(long falhas) {
+        this.falhas = falhas;
+    }
+    
+    public long getDescartes() {
+        return descartes;
+    }
+    
+    public void setDescartes(long descartes) {
+        this.descartes = descartes;
+    }
+    
+    public EstatisticasCacheAnalise getSecoes() {
+        return secoes;
+    }
+    
+    public void setSecoes(EstatisticasCacheAnalise secoes) {
+        this.secoes = secoes;
+    }
+}
\ No newline at end of file
@@ -1,7 +1,8 @@
 package com.avicheckpoint.model;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
-import jakarta.validation.constraints.Size;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
@@ -26,10 +27,15 @@ public class FormularioResposta {
     @NotNull
     private StatusFormulario status;
     
+    // Definida na triagem feita ao submeter; vazia em rascunhos
+    private PrioridadeAnalise prioridade;
+    
     /**
-     * Estrutura flexível que mapeia exatamente o valuesState do frontend.
+     * Respostas na forma compacta (ver {@link EsquemaRespostas}), que é a
+     * forma mantida em memória e gravada. O mapa no formato do valuesState do
+     * frontend é reconstruído sob demanda por {@link #getRespostas()}.
      * 
-     * Exemplo:
+     * Exemplo do mapa:
      * {
      *   "cadastro": {"p_nome": "João", "p_email": "joao@email.com"},
      *   "saude": {"s1": "Sim", "s2": "Espirros"},
@@ -38,8 +44,8 @@ public class FormularioResposta {
      *   "doencas": {"d1": "Não", "d2": "Sim"}
      * }
      */
-    @Size(max = 10000, message = "Dados do formulário muito extensos")
-    private Map<String, Object> respostas = new HashMap<>();
+    @Valid
+    private RespostasCodificadas respostasCodificadas = EsquemaRespostas.codificar(new HashMap<>());
     
     // Campos calculados após análise
     private ResultadoAnalise resultado;
@@ -95,12 +101,34 @@ public class FormularioResposta {
         this.status = status;
     }
     
+    public PrioridadeAnalise getPrioridade() {
+        return prioridade;
+    }
+    
+    public void setPrioridade(PrioridadeAnalise prioridade) {
+        this.prioridade = prioridade;
+    }
+    
+    /**
+     * Reconstrói o mapa de respostas; cada chamada devolve um mapa novo, então
+     * alterações só têm efeito se passadas de volta a {@link #setRespostas(Map)}.
+     * Aceito na leitura de formulários gravados no formato antigo, mas não gravado.
+     */
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     public Map<String, Object> getRespostas() {
-        return respostas;
+        return EsquemaRespostas.decodificar(respostasCodificadas);
     }
     
     public void setRespostas(Map<String, Object> respostas) {
-        this.respostas = respostas;
+        this.respostasCodificadas = EsquemaRespostas.codificar(respostas);
+    }
+    
+    public RespostasCodificadas getRespostasCodificadas() {
+        return respostasCodificadas;
+    }
+    
+    public void setRespostasCodificadas(RespostasCodificadas respostasCodificadas) {
+        this.respostasCodificadas = respostasCodificadas;
     }
     
     public ResultadoAnalise getResultado() {
@@ -117,7 +145,12 @@ public class FormularioResposta {
      * Adiciona ou atualiza respostas de uma seção.
      */
     public void adicionarSecao(String secao, Map<String, Object> dadosSecao) {
-        this.respostas.put(secao, dadosSecao);
+        Map<String, Object> respostas = getRespostas();
+        if (respostas == null) {
+            respostas = new HashMap<>();
+        }
+        respostas.put(secao, dadosSecao);
+        setRespostas(respostas);
         this.dataAtualizacao = LocalDateTime.now();
     }
     
@@ -126,7 +159,7 @@ public class FormularioResposta {
      */
     @SuppressWarnings("unchecked")
     public Map<String, Object> obterSecao(String secao) {
-        Object secaoObj = this.respostas.get(secao);
+        Object secaoObj = respostasCodificadas != null ? getRespostas().get(secao) : null;
         if (secaoObj instanceof Map) {
             return (Map<String, Object>) secaoObj;
         }
@@ -145,10 +178,11 @@ public class FormularioResposta {
      * Verifica se o formulário está completo (todas as seções obrigatórias preenchidas).
      */
     public boolean isCompleto() {
-        return respostas.containsKey("saude") && 
-               respostas.containsKey("nutricao") && 
-               respostas.containsKey("avaliacao") && 
-               respostas.containsKey("doencas");
+        return respostasCodificadas != null &&
+               respostasCodificadas.possuiSecao("saude") && 
+               respostasCodificadas.possuiSecao("nutricao") && 
+               respostasCodificadas.possuiSecao("avaliacao") && 
+               respostasCodificadas.possuiSecao("doencas");
     }
     
     /**
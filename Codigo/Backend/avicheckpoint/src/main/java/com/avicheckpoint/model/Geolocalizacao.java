@@ -0,0 +1,119 @@
+package com.avicheckpoint.model;
+
+import java.nio.file.Path;
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Localização geográfica de endereços.
+ *
+ * Um endereço com latitude e longitude informadas é usado como está; do
+ * contrário, é localizado pela faixa de CEP do município, pelo município
+ * informado e, se nenhum deles estiver na tabela, pela capital da UF (a da
+ * faixa de CEP da UF ou a da UF informada), o que dá uma posição aproximada
+ * mas mantém o endereço nas buscas por proximidade. Uma faixa de CEP da UF
+ * só indica a capital, por isso não prevalece sobre o município informado.
+ *
+ * As consultas são feitas na {@link TabelaGeografica}, aberta na
+ * inicialização por {@link #carregar(Path)}.
+ */
+public final class Geolocalizacao {
+    
+    // Raio médio da Terra, usado no cálculo de distâncias
+    private static final double RAIO_TERRA_KM = 6371.0;
+    
+    private static volatile TabelaGeografica tabela;
+    
+    public record Coordenadas(double latitude, double longitude) {}
+    
+    private Geolocalizacao() {}
+    
+    /**
+     * Abre a tabela geográfica compilada no arquivo informado (compilando-a
+     * se preciso) e passa a usá-la nas consultas.
+     */
+    public static void carregar(Path arquivo) {
+        try {
+            tabela = TabelaGeografica.abrir(arquivo);
+        } catch (RuntimeException e) {
+            throw new RuntimeException("Erro ao carregar tabela geográfica em " + arquivo + ": " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Coordenadas do endereço, ou vazio se ele não puder ser localizado.
+     */
+    public static Optional<Coordenadas> localizar(Endereco endereco) {
+        if (endereco == null) {
+            return Optional.empty();
+        }
+        if (endereco.getLatitude() != null && endereco.getLongitude() != null) {
+            return Optional.of(new Coordenadas(endereco.getLatitude(), endereco.getLongitude()));
+        }
+        
+        TabelaGeografica tabela = tabela();
+        int cep = cep(endereco.getEnderecoCEP());
+        Coordenadas porCep = cep > 0 ? tabela.buscarCepMunicipio(cep) : null;
+        if (porCep != null) {
+            return Optional.of(porCep);
+        }
+        
+        String uf = normalizar(endereco.getEstado());
+        String cidade = normalizar(endereco.getCidade());
+        if (uf != null && cidade != null) {
+            Coordenadas municipio = tabela.buscarLocal(TabelaGeografica.chave(uf + "/" + cidade));
+            if (municipio != null) {
+                return Optional.of(municipio);
+            }
+        }
+        
+        Coordenadas capitalPorCep = cep > 0 ? tabela.buscarCepUf(cep) : null;
+        if (capitalPorCep != null) {
+            return Optional.of(capitalPorCep);
+        }
+        return uf != null ? Optional.ofNullable(tabela.buscarLocal(TabelaGeografica.chave(uf + "/"))) : Optional.empty();
+    }
+    
+    /**
+     * Distância em km entre duas coordenadas, pela fórmula de haversine.
+     */
+    public static double distanciaKm(Coordenadas origem, Coordenadas destino) {
+        double dLat = Math.toRadians(destino.latitude() - origem.latitude());
+        double dLon = Math.toRadians(destino.longitude() - origem.longitude());
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(origem.latitude())) * Math.cos(Math.toRadians(destino.latitude()))
+                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * RAIO_TERRA_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+    
+    /**
+     * Minúsculas e sem acentos, para que "São Paulo" e "sao paulo" coincidam.
+     */
+    static String normalizar(String valor) {
+        if (valor == null || valor.isBlank()) {
+            return null;
+        }
+        String semAcentos = Normalizer.normalize(valor.trim(), Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+        return semAcentos.toLowerCase(Locale.ROOT);
+    }
+    
+    private static TabelaGeografica tabela() {
+        TabelaGeografica atual = tabela;
+        if (atual == null) {
+            throw new RuntimeException("Tabela geográfica não carregada");
+        }
+        return atual;
+    }
+    
+    /**
+     * CEP como número de 8 dígitos (aceita "89800-000"), ou 0 se inválido.
+     */
+    private static int cep(String valor) {
+        if (valor == null) {
+            return 0;
+        }
+        String digitos = valor.replaceAll("\\D", "");
+        return digitos.length() == 8 ? Integer.parseInt(digitos) : 0;
+    }
+}
\ No newline at end of file
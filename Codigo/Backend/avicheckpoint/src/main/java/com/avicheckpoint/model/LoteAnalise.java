@@ -0,0 +1,160 @@
+package com.avicheckpoint.model;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Estado de um lote de análise dos formulários submetidos.
+ * Persistido a cada checkpoint, para que um lote interrompido por
+ * reinício da aplicação seja retomado de onde parou.
+ */
+public class LoteAnalise {
+    
+    public enum Situacao {
+        EM_ANDAMENTO,
+        CONCLUIDO
+    }
+    
+    private String loteId;
+    private Situacao situacao;
+    private LocalDateTime iniciadoEm;
+    private LocalDateTime atualizadoEm;
+    private LocalDateTime finalizadoEm;
+    private int retomadas;
+    private int threads;
+    
+    // Progresso
+    private int pendentes;
+    private int processados;
+    private int analisados;
+    private int ignorados;
+    private int falhas;
+    private double formulariosPorSegundo;
+    
+    // Formulários que falharam não são reprocessados ao retomar o lote
+    private Set<String> idsComFalha = new LinkedHashSet<>();
+    
+    // Constructors
+    public LoteAnalise() {}
+    
+    public LoteAnalise(String loteId) {
+        this.loteId = loteId;
+        this.situacao = Situacao.EM_ANDAMENTO;
+        this.iniciadoEm = LocalDateTime.now();
+        this.atualizadoEm = this.iniciadoEm;
+    }
+    
+    // Getters and Setters
+    public String getLoteId() {
+        return loteId;
+    }
+    
+    public void setLoteId(String loteId) {
+        this.loteId = loteId;
+    }
+    
+    public Situacao getSituacao() {
+        return situacao;
+    }
+    
+    public void setSituacao(Situacao situacao) {
+        this.situacao = situacao;
+    }
+    
+    public LocalDateTime getIniciadoEm() {
+        return iniciadoEm;
+    }
+    
+    public void setIniciadoEm(LocalDateTime iniciadoEm) {
+        this.iniciadoEm = iniciadoEm;
+    }
+    
+    public LocalDateTime getAtualizadoEm() {
+        return atualizadoEm;
+    }
+    
+    public void setAtualizadoEm(LocalDateTime atualizadoEm) {
+        this.atualizadoEm = atualizadoEm;
+    }
+    
+    public LocalDateTime getFinalizadoEm() {
+        return finalizadoEm;
+    }
+    
+    public void setFinalizadoEm(LocalDateTime finalizadoEm) {
+        this.finalizadoEm = finalizadoEm;
+    }
+    
+    public int getRetomadas() {
+        return retomadas;
+    }
+    
+    public void setRetomadas(int retomadas) {
+        this.retomadas = retomadas;
+    }
+    
+    public int getThreads() {
+        return threads;
+    }
+    
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+    
+    public int getPendentes() {
+        return pendentes;
+    }
+    
+    public void setPendentes(int pendentes) {
+        this.pendentes = pendentes;
+    }
+    
+    public int getProcessados() {
+        return processados;
+    }
+    
+    public void setProcessados(int processados) {
+        this.processados = processados;
+    }
+    
+    public int getAnalisados() {
+        return analisados;
+    }
+    
+    public void setAnalisados(int analisados) {
+        this.analisados = analisados;
+    }
+    
+    public int getIgnorados() {
+        return ignorados;
+    }
+    
+    public void setIgnorados(int ignorados) {
+        this.ignorados = ignorados;
+    }
+    
+    public int getFalhas() {
+        return falhas;
+    }
+    
+    public void setFalhas(int falhas) {
+        this.falhas = falhas;
+    }
+    
+    public double getFormulariosPorSegundo() {
+        return formulariosPorSegundo;
+    }
+    
+    public void setFormulariosPorSegundo(double formulariosPorSegundo) {
+        this.formulariosPorSegundo = formulariosPorSegundo;
+    }
+    
+    public Set<String> getIdsComFalha() {
+        return idsComFalha;
+    }
+    
+    public void setIdsComFalha(Set<String> idsComFalha) {
+        this.idsComFalha = idsComFalha;
+    }
+}
\ No newline at end of file
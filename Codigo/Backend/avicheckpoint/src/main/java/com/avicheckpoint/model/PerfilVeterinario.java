@@ -0,0 +1,47 @@
+package com.avicheckpoint.model;
+
+import com.avicheckpoint.model.Geolocalizacao.Coordenadas;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Características de um veterinário usadas na recomendação, calculadas uma
+ * vez a partir do cadastro e recalculadas quando ele muda: especialidades
+ * (máscara de bits de {@link EspecialidadeVeterinaria}), posição do endereço
+ * e avaliação agregada. A pontuação de um candidato usa apenas este registro,
+ * sem reler a bio.
+ *
+ * @param posicao posição do endereço, ou null se ele não puder ser localizado
+ */
+public record PerfilVeterinario(int especialidades,
+                                Coordenadas posicao,
+                                int anosExperiencia,
+                                double avaliacaoMedia,
+                                int totalAvaliacoes) {
+    
+    // Especialidades que qualificam o veterinário para atender aves
+    private static final int AVES = EspecialidadeVeterinaria.AVICULTURA.getBit()
+            | EspecialidadeVeterinaria.MEDICINA_AVES.getBit();
+    
+    public boolean possui(EspecialidadeVeterinaria especialidade) {
+        return (especialidades & especialidade.getBit()) != 0;
+    }
+    
+    public boolean isEspecialistaAves() {
+        return (especialidades & AVES) != 0;
+    }
+    
+    /**
+     * Nomes das especialidades, na ordem de exibição.
+     */
+    public List<String> nomesEspecialidades() {
+        List<String> nomes = new ArrayList<>();
+        for (EspecialidadeVeterinaria especialidade : EspecialidadeVeterinaria.values()) {
+            if (possui(especialidade)) {
+                nomes.add(especialidade.getNome());
+            }
+        }
+        return nomes;
+    }
+}
\ No newline at end of file
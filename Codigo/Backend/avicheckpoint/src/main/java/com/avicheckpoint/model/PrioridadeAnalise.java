@@ -0,0 +1,20 @@
+package com.avicheckpoint.model;
+
+/**
+ * Prioridade de análise de um formulário submetido, definida por uma triagem
+ * das respostas no momento da submissão. A ordem das constantes é a ordem de
+ * atendimento.
+ */
+public enum PrioridadeAnalise {
+    
+    /**
+     * Respostas que disparam alerta crítico (suspeita de influenza aviária ou
+     * Newcastle): analisado antes dos demais.
+     */
+    CRITICA,
+    
+    /**
+     * Demais formulários, analisados na ordem de chegada.
+     */
+    NORMAL
+}
\ No newline at end of file
@@ -22,6 +22,13 @@ public class Produtor extends Usuario {
         return "PRODUTOR";
     }
     
+    @Override
+    public Produtor copiar() {
+        Produtor copia = new Produtor();
+        copiarPara(copia);
+        return copia;
+    }
+    
     @Override
     public String toString() {
         return "Produtor{" +
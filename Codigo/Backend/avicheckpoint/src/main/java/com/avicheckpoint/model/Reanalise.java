@@ -0,0 +1,157 @@
+package com.avicheckpoint.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Andamento de uma reanálise: o recálculo dos resultados de todos os
+ * formulários analisados com uma versão das regras diferente da atual.
+ */
+public class Reanalise {
+    
+    public enum Situacao {
+        EM_ANDAMENTO,
+        CONCLUIDA,
+        INTERROMPIDA
+    }
+    
+    private String reanaliseId;
+    private String versaoRegras;
+    private Situacao situacao;
+    private LocalDateTime iniciadaEm;
+    private LocalDateTime atualizadaEm;
+    private LocalDateTime finalizadaEm;
+    private String motivoInterrupcao;
+    private int threads;
+    
+    // Progresso
+    private int produtores;
+    private int produtoresConcluidos;
+    private int reanalisados;
+    private int ignorados;
+    private int falhas;
+    private double formulariosPorSegundo;
+    
+    // Constructors
+    public Reanalise() {}
+    
+    public Reanalise(String reanaliseId, String versaoRegras) {
+        this.reanaliseId = reanaliseId;
+        this.versaoRegras = versaoRegras;
+        this.situacao = Situacao.EM_ANDAMENTO;
+        this.iniciadaEm = LocalDateTime.now();
+        this.atualizadaEm = this.iniciadaEm;
+    }
+    
+    // Getters and Setters
+    public String getReanaliseId() {
+        return reanaliseId;
+    }
+    
+    public void setReanaliseId(String reanaliseId) {
+        this.reanaliseId = reanaliseId;
+    }
+    
+    public String getVersaoRegras() {
+        return versaoRegras;
+    }
+    
+    public void setVersaoRegras(String versaoRegras) {
+        this.versaoRegras = versaoRegras;
+    }
+    
+    public Situacao getSituacao() {
+        return situacao;
+    }
+    
+    public void setSituacao(Situacao situacao) {
+        this.situacao = situacao;
+    }
+    
+    public LocalDateTime getIniciadaEm() {
+        return iniciadaEm;
+    }
+    
+    public void setIniciadaEm(LocalDateTime iniciadaEm) {
+        this.iniciadaEm = iniciadaEm;
+    }
+    
+    public LocalDateTime getAtualizadaEm() {
+        return atualizadaEm;
+    }
+    
+    public void setAtualizadaEm(LocalDateTime atualizadaEm) {
+        this.atualizadaEm = atualizadaEm;
+    }
+    
+    public LocalDateTime getFinalizadaEm() {
+        return finalizadaEm;
+    }
+    
+    public void setFinalizadaEm(LocalDateTime finalizadaEm) {
+        this.finalizadaEm = finalizadaEm;
+    }
+    
+    public String getMotivoInterrupcao() {
+        return motivoInterrupcao;
+    }
+    
+    public void setMotivoInterrupcao(String motivoInterrupcao) {
+        this.motivoInterrupcao = motivoInterrupcao;
+    }
+    
+    public int getThreads() {
+        return threads;
+    }
+    
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+    
+    public int getProdutores() {
+        return produtores;
+    }
+    
+    public void setProdutores(int produtores) {
+        this.produtores = produtores;
+    }
+    
+    public int getProdutoresConcluidos() {
+        return produtoresConcluidos;
+    }
+    
+    public void setProdutoresConcluidos(int produtoresConcluidos) {
+        this.produtoresConcluidos = produtoresConcluidos;
+    }
+    
+    public int getReanalisados() {
+        return reanalisados;
+    }
+    
+    public void setReanalisados(int reanalisados) {
+        this.reanalisados = reanalisados;
+    }
+    
+    public int getIgnorados() {
+        return ignorados;
+    }
+    
+    public void setIgnorados(int ignorados) {
+        this.ignorados = ignorados;
+    }
+    
+    public int getFalhas() {
+        return falhas;
+    }
+    
+    public void setFalhas(int falhas) {
+        this.falhas = falhas;
+    }
+    
+    public double getFormulariosPorSegundo() {
+        return formulariosPorSegundo;
+    }
+    
+    public void setFormulariosPorSegundo(double formulariosPorSegundo) {
+        this.formulariosPorSegundo = formulariosPorSegundo;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,132 @@
+package com.avicheckpoint.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Linha da tabela de regras de análise.
+ * Associa a resposta de uma pergunta do formulário a uma mensagem de
+ * feedback (ponto forte, ponto a melhorar ou alerta) e aos profissionais
+ * recomendados.
+ */
+public class RegraAnalise {
+    
+    /**
+     * Resposta curinga: casa com qualquer resposta dada à pergunta,
+     * desde que nenhuma regra exclusiva da mesma pergunta tenha casado.
+     */
+    public static final String QUALQUER_RESPOSTA = "*";
+    
+    public enum Categoria {
+        PONTO_FORTE,
+        PONTO_A_MELHORAR,
+        ALERTA
+    }
+    
+    private String secao;
+    private String pergunta;
+    private String resposta;
+    
+    /**
+     * Categoria da mensagem; nula para regras que apenas recomendam profissionais.
+     */
+    private Categoria categoria;
+    
+    /**
+     * Código da mensagem no {@link CatalogoMensagens}; é o que fica gravado no resultado.
+     */
+    private String codigo;
+    
+    /**
+     * Texto padrão opcional; se informado, substitui o do catálogo para o código.
+     */
+    private String mensagem;
+    
+    /**
+     * Gravidade do alerta; usada apenas na categoria ALERTA, onde o padrão é ATENCAO.
+     */
+    private AlertaAnalise.Severidade severidade;
+    private List<String> profissionais = new ArrayList<>();
+    
+    /**
+     * Em perguntas de múltipla escolha, uma regra exclusiva que casa
+     * impede a aplicação das demais regras da pergunta.
+     */
+    private boolean exclusiva;
+    
+    // Constructors
+    public RegraAnalise() {}
+    
+    // Getters and Setters
+    public String getSecao() {
+        return secao;
+    }
+    
+    public void setSecao(String secao) {
+        this.secao = secao;
+    }
+    
+    public String getPergunta() {
+        return pergunta;
+    }
+    
+    public void setPergunta(String pergunta) {
+        this.pergunta = pergunta;
+    }
+    
+    public String getResposta() {
+        return resposta;
+    }
+    
+    public void setResposta(String resposta) {
+        this.resposta = resposta;
+    }
+    
+    public Categoria getCategoria() {
+        return categoria;
+    }
+    
+    public void setCategoria(Categoria categoria) {
+        this.categoria = categoria;
+    }
+    
+    public String getCodigo() {
+        return codigo;
+    }
+    
+    public void setCodigo(String codigo) {
+        this.codigo = codigo;
+    }
+    
+    public String getMensagem() {
+        return mensagem;
+    }
+    
+    public void setMensagem(String mensagem) {
+        this.mensagem = mensagem;
+    }
+    
+    public AlertaAnalise.Severidade getSeveridade() {
+        return severidade;
+    }
+    
+    public void setSeveridade(AlertaAnalise.Severidade severidade) {
+        this.severidade = severidade;
+    }
+    
+    public List<String> getProfissionais() {
+        return profissionais;
+    }
+    
+    public void setProfissionais(List<String> profissionais) {
+        this.profissionais = profissionais;
+    }
+    
+    public boolean isExclusiva() {
+        return exclusiva;
+    }
+    
+    public void setExclusiva(boolean exclusiva) {
+        this.exclusiva = exclusiva;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,84 @@
+package com.avicheckpoint.model;
+
+import jakarta.validation.constraints.Size;
+import java.util.Map;
+
+/**
+ * Respostas de um formulário na forma compacta definida por {@link EsquemaRespostas}.
+ *
+ * As perguntas de múltipla escolha conhecidas ocupam um byte cada em
+ * {@code codigos}; o primeiro byte indica quais seções foram preenchidas.
+ * O que o esquema não cobre (cadastro, textos livres, valores inesperados)
+ * fica em {@code extras}, com a mesma estrutura do mapa original.
+ */
+public class RespostasCodificadas {
+    
+    private int esquema;
+    private byte[] codigos;
+    // Os códigos têm tamanho fixo; o que não é codificado é limitado como era o mapa original
+    @Size(max = 10000, message = "Dados do formulário muito extensos")
+    private Map<String, Object> extras;
+    
+    // Constructors
+    public RespostasCodificadas() {}
+    
+    public RespostasCodificadas(int esquema, byte[] codigos, Map<String, Object> extras) {
+        this.esquema = esquema;
+        this.codigos = codigos;
+        this.extras = extras;
+    }
+    
+    /**
+     * Resposta de uma pergunta: o valor codificado na posição do esquema ou,
+     * na falta dele, o valor guardado em extras. Nulo se não respondida.
+     * Use posição -1 para perguntas fora do esquema.
+     */
+    public Object valor(int posicao, String secao, String pergunta) {
+        if (posicao >= 0) {
+            Object valor = EsquemaRespostas.decodificarValor(posicao, codigos[posicao + 1]);
+            if (valor != null) {
+                return valor;
+            }
+        }
+        if (extras != null && extras.get(secao) instanceof Map<?, ?> valores) {
+            return valores.get(pergunta);
+        }
+        return null;
+    }
+    
+    /**
+     * Verifica se a seção foi informada.
+     */
+    public boolean possuiSecao(String secao) {
+        int indice = EsquemaRespostas.indiceSecao(secao);
+        if (indice >= 0 && (codigos[0] & (1 << indice)) != 0) {
+            return true;
+        }
+        return extras != null && extras.containsKey(secao);
+    }
+    
+    // Getters and Setters
+    public int getEsquema() {
+        return esquema;
+    }
+    
+    public void setEsquema(int esquema) {
+        this.esquema = esquema;
+    }
+    
+    public byte[] getCodigos() {
+        return codigos;
+    }
+    
+    public void setCodigos(byte[] codigos) {
+        this.codigos = codigos;
+    }
+    
+    public Map<String, Object> getExtras() {
+        return extras;
+    }
+    
+    public void setExtras(Map<String, Object> extras) {
+        this.extras = extras;
+    }
+}
\ No newline at end of file
@@ -7,6 +7,11 @@ import java.util.List;
 /**
  * Representa o resultado da análise de um formulário.
  * Contém as categorias de feedback baseadas no etapa-hackaton.md.
+ * 
+ * Panorama, pontos fortes, melhorias e comentários guardam códigos do
+ * {@link CatalogoMensagens}, traduzidos em texto apenas na exibição.
+ * Resultados gravados antes dos códigos guardam o próprio texto, que é
+ * exibido como está.
  */
 public class ResultadoAnalise {
     
@@ -30,6 +35,16 @@ public class ResultadoAnalise {
      */
     private List<String> comentarios = new ArrayList<>();
     
+    /**
+     * Alertas identificados, com seção e severidade.
+     */
+    private List<AlertaAnalise> alertas = new ArrayList<>();
+    
+    /**
+     * Indica se algum alerta é crítico; calculado junto com a análise.
+     */
+    private boolean temAlertasCriticos;
+    
     /**
      * Profissão recomendada baseada nas respostas.
      * Ex: "Medicina veterinária", "Zootecnia", "Medicina"
@@ -46,6 +61,11 @@ public class ResultadoAnalise {
      */
     private Integer pontuacaoGeral;
     
+    /**
+     * Versão da tabela de regras que produziu esta análise.
+     */
+    private String versaoRegras;
+    
     // Constructors
     public ResultadoAnalise() {}
     
@@ -82,6 +102,22 @@ public class ResultadoAnalise {
         this.comentarios = comentarios;
     }
     
+    public List<AlertaAnalise> getAlertas() {
+        return alertas;
+    }
+    
+    public void setAlertas(List<AlertaAnalise> alertas) {
+        this.alertas = alertas;
+    }
+    
+    public boolean isTemAlertasCriticos() {
+        return temAlertasCriticos;
+    }
+    
+    public void setTemAlertasCriticos(boolean temAlertasCriticos) {
+        this.temAlertasCriticos = temAlertasCriticos;
+    }
+    
     public String getProfissaoRecomendada() {
         return profissaoRecomendada;
     }
@@ -102,6 +138,45 @@ public class ResultadoAnalise {
         return pontuacaoGeral;
     }
     
+    public String getVersaoRegras() {
+        return versaoRegras;
+    }
+    
+    public void setVersaoRegras(String versaoRegras) {
+        this.versaoRegras = versaoRegras;
+    }
+    
+    /**
+     * Cópia rasa: apenas o objeto do resultado é novo, as listas são compartilhadas.
+     */
+    public ResultadoAnalise copiar() {
+        ResultadoAnalise copia = new ResultadoAnalise();
+        copia.setPanorama(panorama);
+        copia.setPontosFortes(pontosFortes);
+        copia.setMelhorias(melhorias);
+        copia.setComentarios(comentarios);
+        copia.setAlertas(alertas);
+        copia.setTemAlertasCriticos(temAlertasCriticos);
+        copia.setProfissaoRecomendada(profissaoRecomendada);
+        copia.setVeterinariosProximos(veterinariosProximos);
+        copia.setPontuacaoGeral(pontuacaoGeral);
+        copia.setVersaoRegras(versaoRegras);
+        return copia;
+    }
+    
+    /**
+     * Códigos dos alertas, na ordem em que foram identificados.
+     */
+    public List<String> codigosAlertas() {
+        List<String> codigos = new ArrayList<>();
+        if (alertas != null) {
+            for (AlertaAnalise alerta : alertas) {
+                codigos.add(alerta.getCodigo());
+            }
+        }
+        return codigos;
+    }
+    
     // Métodos utilitários para adicionar itens
     
     public void addPanorama(String item) {
@@ -197,14 +272,6 @@ public class ResultadoAnalise {
         this.melhorias = pontosAMelhorar;
     }
     
-    public void setAlertas(List<String> alertas) {
-        // Adicionar alertas aos comentários
-        if (this.comentarios == null) {
-            this.comentarios = new ArrayList<>();
-        }
-        this.comentarios.addAll(alertas);
-    }
-    
     public void setProfissionaisRecomendados(List<String> profissionaisRecomendados) {
         if (!profissionaisRecomendados.isEmpty()) {
             this.profissaoRecomendada = String.join(", ", profissionaisRecomendados);
@@ -0,0 +1,184 @@
+package com.avicheckpoint.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Resumo compacto de um formulário, persistido no manifesto do produtor.
+ * Contém apenas os metadados necessários para listagens e dashboards,
+ * evitando carregar as respostas e os textos completos da análise.
+ */
+public class ResumoFormulario {
+    
+    private String formularioId;
+    private Integer produtorId;
+    private LocalDateTime dataPreenchimento;
+    private LocalDateTime dataAtualizacao;
+    private StatusFormulario status;
+    private boolean completo;
+    
+    // Dados da análise (nulos/zerados enquanto não houver resultado)
+    private Integer pontuacaoGeral;
+    private String panoramaGeral;
+    private int totalPontosFortes;
+    private int totalPontosAMelhorar;
+    private int totalAlertas;
+    private boolean temAlertasCriticos;
+    
+    // Versão das regras que produziu o resultado; permite achar resultados desatualizados sem ler os formulários
+    private String versaoRegras;
+    
+    // Constructors
+    public ResumoFormulario() {}
+    
+    /**
+     * Extrai o resumo de um formulário completo.
+     */
+    public static ResumoFormulario de(FormularioResposta formulario) {
+        ResumoFormulario resumo = new ResumoFormulario();
+        resumo.setFormularioId(formulario.getFormularioId());
+        resumo.setProdutorId(formulario.getProdutorId());
+        resumo.setDataPreenchimento(formulario.getDataPreenchimento());
+        resumo.setDataAtualizacao(formulario.getDataAtualizacao());
+        resumo.setStatus(formulario.getStatus());
+        resumo.setCompleto(formulario.isCompleto());
+        
+        ResultadoAnalise resultado = formulario.getResultado();
+        if (resultado != null) {
+            resumo.setPontuacaoGeral(resultado.getPontuacaoGeral());
+            resumo.setPanoramaGeral(resultado.getPanorama() != null && !resultado.getPanorama().isEmpty() ?
+                    resultado.getPanorama().get(0) : "");
+            resumo.setTotalPontosFortes(resultado.getPontosFortes() != null ?
+                    resultado.getPontosFortes().size() : 0);
+            resumo.setTotalPontosAMelhorar(resultado.getMelhorias() != null ?
+                    resultado.getMelhorias().size() : 0);
+            resumo.setTotalAlertas(resultado.getAlertas() != null ?
+                    resultado.getAlertas().size() : 0);
+            resumo.setTemAlertasCriticos(resultado.isTemAlertasCriticos());
+            resumo.setVersaoRegras(resultado.getVersaoRegras());
+        }
+        
+        return resumo;
+    }
+    
+    /**
+     * Indica se o formulário já possui resultado de análise.
+     */
+    public boolean possuiResultado() {
+        return pontuacaoGeral != null;
+    }
+    
+    // Getters and Setters
+    public String getFormularioId() {
+        return formularioId;
+    }
+    
+    public void setFormularioId(String formularioId) {
+        this.formularioId = formularioId;
+    }
+    
+    public Integer getProdutorId() {
+        return produtorId;
+    }
+    
+    public void setProdutorId(Integer produtorId) {
+        this.produtorId = produtorId;
+    }
+    
+    public LocalDateTime getDataPreenchimento() {
+        return dataPreenchimento;
+    }
+    
+    public void setDataPreenchimento(LocalDateTime dataPreenchimento) {
+        this.dataPreenchimento = dataPreenchimento;
+    }
+    
+    public LocalDateTime getDataAtualizacao() {
+        return dataAtualizacao;
+    }
+    
+    public void setDataAtualizacao(LocalDateTime dataAtualizacao) {
+        this.dataAtualizacao = dataAtualizacao;
+    }
+    
+    public StatusFormulario getStatus() {
+        return status;
+    }
+    
+    public void setStatus(StatusFormulario status) {
+        this.status = status;
+    }
+    
+    public boolean isCompleto() {
+        return completo;
+    }
+    
+    public void setCompleto(boolean completo) {
+        this.completo = completo;
+    }
+    
+    public Integer getPontuacaoGeral() {
+        return pontuacaoGeral;
+    }
+    
+    public void setPontuacaoGeral(Integer pontuacaoGeral) {
+        this.pontuacaoGeral = pontuacaoGeral;
+    }
+    
+    public String getPanoramaGeral() {
+        return panoramaGeral;
+    }
+    
+    public void setPanoramaGeral(String panoramaGeral) {
+        this.panoramaGeral = panoramaGeral;
+    }
+    
+    public int getTotalPontosFortes() {
+        return totalPontosFortes;
+    }
+    
+    public void setTotalPontosFortes(int totalPontosFortes) {
+        this.totalPontosFortes = totalPontosFortes;
+    }
+    
+    public int getTotalPontosAMelhorar() {
+        return totalPontosAMelhorar;
+    }
+    
+    public void setTotalPontosAMelhorar(int totalPontosAMelhorar) {
+        this.totalPontosAMelhorar = totalPontosAMelhorar;
+    }
+    
+    public int getTotalAlertas() {
+        return totalAlertas;
+    }
+    
+    public void setTotalAlertas(int totalAlertas) {
+        this.totalAlertas = totalAlertas;
+    }
+    
+    public boolean isTemAlertasCriticos() {
+        return temAlertasCriticos;
+    }
+    
+    public void setTemAlertasCriticos(boolean temAlertasCriticos) {
+        this.temAlertasCriticos = temAlertasCriticos;
+    }
+    
+    public String getVersaoRegras() {
+        return versaoRegras;
+    }
+    
+    public void setVersaoRegras(String versaoRegras) {
+        this.versaoRegras = versaoRegras;
+    }
+    
+    @Override
+    public String toString() {
+        return "ResumoFormulario{" +
+                "formularioId='" + formularioId + '\'' +
+                ", produtorId=" + produtorId +
+                ", status=" + status +
+                ", pontuacaoGeral=" + pontuacaoGeral +
+                '}';
+    }
+}
\ No newline at end of file
@@ -0,0 +1,89 @@
+package com.avicheckpoint.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Situação da tabela de regras de análise em uso: versão ativa, versão
+ * disponível para reversão e resultado da última tentativa de recarga.
+ */
+public class SituacaoRegras {
+    
+    private String versaoAtiva;
+    private String versaoAnterior;
+    private String origem;
+    private int totalRegras;
+    private TabelaRegras.Pesos pesos;
+    private LocalDateTime carregadaEm;
+    
+    // Última recarga recusada; a versão ativa continua em uso
+    private String ultimoErro;
+    private LocalDateTime ultimoErroEm;
+    
+    // Constructors
+    public SituacaoRegras() {}
+    
+    // Getters and Setters
+    public String getVersaoAtiva() {
+        return versaoAtiva;
+    }
+    
+    public void setVersaoAtiva(String versaoAtiva) {
+        this.versaoAtiva = versaoAtiva;
+    }
+    
+    public String getVersaoAnterior() {
+        return versaoAnterior;
+    }
+    
+    public void setVersaoAnterior(String versaoAnterior) {
+        this.versaoAnterior = versaoAnterior;
+    }
+    
+    public String getOrigem() {
+        return origem;
+    }
+    
+    public void setOrigem(String origem) {
+        this.origem = origem;
+    }
+    
+    public TabelaRegras.Pesos getPesos() {
+        return pesos;
+    }
+    
+    public void setPesos(TabelaRegras.Pesos pesos) {
+        this.pesos = pesos;
+    }
+    
+    public int getTotalRegras() {
+        return totalRegras;
+    }
+    
+    public void setTotalRegras(int totalRegras) {
+        this.totalRegras = totalRegras;
+    }
+    
+    public LocalDateTime getCarregadaEm() {
+        return carregadaEm;
+    }
+    
+    public void setCarregadaEm(LocalDateTime carregadaEm) {
+        this.carregadaEm = carregadaEm;
+    }
+    
+    public String getUltimoErro() {
+        return ultimoErro;
+    }
+    
+    public void setUltimoErro(String ultimoErro) {
+        this.ultimoErro = ultimoErro;
+    }
+    
+    public LocalDateTime getUltimoErroEm() {
+        return ultimoErroEm;
+    }
+    
+    public void setUltimoErroEm(LocalDateTime ultimoErroEm) {
+        this.ultimoErroEm = ultimoErroEm;
+    }
+}
\ No newline at end of file
@@ -32,7 +32,7 @@ public enum StatusFormulario {
     
     public static StatusFormulario fromString(String valor) {
         for (StatusFormulario status : values()) {
-            if (status.valor.equals(valor)) {
+            if (status.valor.equalsIgnoreCase(valor)) {
                 return status;
             }
         }
@@ -0,0 +1,298 @@
+package com.avicheckpoint.model;
+
+import com.avicheckpoint.model.Geolocalizacao.Coordenadas;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.zip.CRC32;
+
+/**
+ * Tabela geográfica compilada: faixas de CEP e municípios com suas coordenadas,
+ * em um arquivo binário ordenado, mapeado em memória e consultado por busca
+ * binária. Só o mapeamento fica no heap.
+ *
+ * As fontes são os CSVs geo/municipios.csv e geo/faixas-cep.csv. O arquivo é
+ * compilado na primeira inicialização e sempre que as fontes mudam (a
+ * assinatura delas fica no cabeçalho); se não puder ser gravado, a tabela
+ * compilada fica em um buffer em memória.
+ *
+ * Formato: cabeçalho (marca, versão, assinatura, total de faixas de
+ * municípios, total de faixas de UFs, total de locais), as faixas de CEP de
+ * municípios e depois as de UFs (início, fim, latitude, longitude), cada
+ * grupo ordenado e sem sobreposição, e locais (chave, latitude, longitude)
+ * ordenados pela chave, que é um hash de "uf/município" normalizado ("uf/"
+ * para a UF). As faixas de UF ficam à parte porque só indicam a capital.
+ */
+final class TabelaGeografica {
+    
+    private static final String MUNICIPIOS = "geo/municipios.csv";
+    private static final String FAIXAS_CEP = "geo/faixas-cep.csv";
+    
+    private static final int MARCA = 0x41564750;
+    private static final int VERSAO_FORMATO = 2;
+    private static final int TAMANHO_CABECALHO = 28;
+    private static final int TAMANHO_REGISTRO = 16;
+    
+    private final ByteBuffer tabela;
+    private final int totalFaixasMunicipio;
+    private final int totalFaixasUf;
+    private final int totalLocais;
+    private final int inicioFaixasUf;
+    private final int inicioLocais;
+    
+    private record Faixa(int inicio, int fim, Coordenadas coordenadas) {}
+    
+    private TabelaGeografica(ByteBuffer tabela) {
+        this.tabela = tabela;
+        this.totalFaixasMunicipio = tabela.getInt(16);
+        this.totalFaixasUf = tabela.getInt(20);
+        this.totalLocais = tabela.getInt(24);
+        this.inicioFaixasUf = TAMANHO_CABECALHO + totalFaixasMunicipio * TAMANHO_REGISTRO;
+        this.inicioLocais = inicioFaixasUf + totalFaixasUf * TAMANHO_REGISTRO;
+    }
+    
+    /**
+     * Abre a tabela compilada no arquivo informado, compilando-a antes se ela
+     * não existir ou estiver desatualizada em relação às fontes.
+     */
+    static TabelaGeografica abrir(Path arquivo) {
+        byte[] municipios = lerRecurso(MUNICIPIOS);
+        byte[] faixas = lerRecurso(FAIXAS_CEP);
+        long assinatura = assinatura(municipios, faixas);
+        
+        try {
+            if (Files.exists(arquivo)) {
+                ByteBuffer existente = mapear(arquivo);
+                if (existente.getInt(0) == MARCA && existente.getInt(4) == VERSAO_FORMATO
+                        && existente.getLong(8) == assinatura) {
+                    return new TabelaGeografica(existente);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // Arquivo ilegível: compilar de novo
+        }
+        
+        ByteBuffer compilada = compilar(municipios, faixas, assinatura);
+        try {
+            Files.createDirectories(arquivo.toAbsolutePath().getParent());
+            Path temporario = arquivo.resolveSibling(arquivo.getFileName() + ".tmp");
+            Files.write(temporario, compilada.array());
+            Files.move(temporario, arquivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return new TabelaGeografica(mapear(arquivo));
+        } catch (IOException e) {
+            return new TabelaGeografica(compilada);
+        }
+    }
+    
+    /**
+     * Coordenadas da faixa de município que contém o CEP (8 dígitos), ou null.
+     */
+    Coordenadas buscarCepMunicipio(int cep) {
+        return buscarFaixa(TAMANHO_CABECALHO, totalFaixasMunicipio, cep);
+    }
+    
+    /**
+     * Coordenadas (da capital) da faixa de UF que contém o CEP, ou null.
+     */
+    Coordenadas buscarCepUf(int cep) {
+        return buscarFaixa(inicioFaixasUf, totalFaixasUf, cep);
+    }
+    
+    private Coordenadas buscarFaixa(int inicioGrupo, int total, int cep) {
+        int baixo = 0;
+        int alto = total - 1;
+        while (baixo <= alto) {
+            int meio = (baixo + alto) >>> 1;
+            int posicao = inicioGrupo + meio * TAMANHO_REGISTRO;
+            if (tabela.getInt(posicao) > cep) {
+                alto = meio - 1;
+            } else if (tabela.getInt(posicao + 4) < cep) {
+                baixo = meio + 1;
+            } else {
+                return new Coordenadas(tabela.getFloat(posicao + 8), tabela.getFloat(posicao + 12));
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Coordenadas do local com a chave informada (ver {@link #chave(String)}), ou null.
+     */
+    Coordenadas buscarLocal(long chave) {
+        int baixo = 0;
+        int alto = totalLocais - 1;
+        while (baixo <= alto) {
+            int meio = (baixo + alto) >>> 1;
+            int posicao = inicioLocais + meio * TAMANHO_REGISTRO;
+            long atual = tabela.getLong(posicao);
+            if (atual < chave) {
+                baixo = meio + 1;
+            } else if (atual > chave) {
+                alto = meio - 1;
+            } else {
+                return new Coordenadas(tabela.getFloat(posicao + 8), tabela.getFloat(posicao + 12));
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Chave de um local já normalizado: hash FNV-1a de 64 bits.
+     */
+    static long chave(String local) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : local.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+    
+    private static ByteBuffer compilar(byte[] fonteMunicipios, byte[] fonteFaixas, long assinatura) {
+        // Locais: municípios e, para cada UF, a primeira linha (a capital)
+        TreeMap<Long, Coordenadas> locais = new TreeMap<>();
+        Map<String, Coordenadas> porLocal = new HashMap<>();
+        for (String[] campos : lerCsv(fonteMunicipios)) {
+            String uf = Geolocalizacao.normalizar(campos[0]);
+            Coordenadas coordenadas = new Coordenadas(Double.parseDouble(campos[2]), Double.parseDouble(campos[3]));
+            String municipio = uf + "/" + Geolocalizacao.normalizar(campos[1]);
+            porLocal.put(municipio, coordenadas);
+            porLocal.putIfAbsent(uf + "/", coordenadas);
+        }
+        porLocal.forEach((local, coordenadas) -> {
+            if (locais.put(chave(local), coordenadas) != null) {
+                throw new RuntimeException("Colisão de chave na tabela de municípios: " + local);
+            }
+        });
+        
+        List<Faixa> faixasMunicipio = new ArrayList<>();
+        List<Faixa> faixasUf = new ArrayList<>();
+        for (String[] campos : lerCsv(fonteFaixas)) {
+            String municipio = campos.length > 3 ? Geolocalizacao.normalizar(campos[3]) : null;
+            String local = Geolocalizacao.normalizar(campos[2]) + "/" + (municipio != null ? municipio : "");
+            Coordenadas coordenadas = porLocal.get(local);
+            if (coordenadas == null) {
+                throw new RuntimeException("Faixa de CEP com local desconhecido: " + String.join(";", campos));
+            }
+            Faixa faixa = new Faixa(Integer.parseInt(campos[0]), Integer.parseInt(campos[1]), coordenadas);
+            (municipio != null ? faixasMunicipio : faixasUf).add(faixa);
+        }
+        List<Faixa> planasMunicipio = achatar(faixasMunicipio);
+        List<Faixa> planasUf = achatar(faixasUf);
+        
+        ByteBuffer tabela = ByteBuffer.allocate(TAMANHO_CABECALHO
+                + (planasMunicipio.size() + planasUf.size() + locais.size()) * TAMANHO_REGISTRO);
+        tabela.putInt(MARCA).putInt(VERSAO_FORMATO).putLong(assinatura)
+                .putInt(planasMunicipio.size()).putInt(planasUf.size()).putInt(locais.size());
+        for (List<Faixa> planas : List.of(planasMunicipio, planasUf)) {
+            for (Faixa faixa : planas) {
+                tabela.putInt(faixa.inicio()).putInt(faixa.fim())
+                        .putFloat((float) faixa.coordenadas().latitude()).putFloat((float) faixa.coordenadas().longitude());
+            }
+        }
+        locais.forEach((chave, coordenadas) -> tabela.putLong(chave)
+                .putFloat((float) coordenadas.latitude()).putFloat((float) coordenadas.longitude()));
+        return tabela;
+    }
+    
+    /**
+     * Transforma faixas que se sobrepõem em faixas disjuntas, em que cada
+     * trecho fica com a faixa mais estreita que o cobre. Trechos vizinhos com
+     * as mesmas coordenadas são unidos.
+     */
+    private static List<Faixa> achatar(List<Faixa> faixas) {
+        TreeSet<Integer> limites = new TreeSet<>();
+        for (Faixa faixa : faixas) {
+            limites.add(faixa.inicio());
+            limites.add(faixa.fim() + 1);
+        }
+        List<Faixa> porInicio = new ArrayList<>(faixas);
+        porInicio.sort(Comparator.comparingInt(Faixa::inicio));
+        PriorityQueue<Faixa> ativas = new PriorityQueue<>(
+                Comparator.comparingLong(faixa -> (long) faixa.fim() - faixa.inicio()));
+        
+        List<Faixa> planas = new ArrayList<>();
+        int proxima = 0;
+        Integer inicio = limites.isEmpty() ? null : limites.first();
+        while (inicio != null) {
+            Integer seguinte = limites.higher(inicio);
+            while (proxima < porInicio.size() && porInicio.get(proxima).inicio() <= inicio) {
+                ativas.add(porInicio.get(proxima++));
+            }
+            while (!ativas.isEmpty() && ativas.peek().fim() < inicio) {
+                ativas.poll();
+            }
+            if (!ativas.isEmpty() && seguinte != null) {
+                Coordenadas coordenadas = ativas.peek().coordenadas();
+                Faixa anterior = planas.isEmpty() ? null : planas.get(planas.size() - 1);
+                if (anterior != null && anterior.fim() == inicio - 1 && anterior.coordenadas().equals(coordenadas)) {
+                    planas.set(planas.size() - 1, new Faixa(anterior.inicio(), seguinte - 1, coordenadas));
+                } else {
+                    planas.add(new Faixa(inicio, seguinte - 1, coordenadas));
+                }
+            }
+            inicio = seguinte;
+        }
+        return planas;
+    }
+    
+    private static ByteBuffer mapear(Path arquivo) throws IOException {
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            return canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+        }
+    }
+    
+    private static long assinatura(byte[]... fontes) {
+        CRC32 crc = new CRC32();
+        crc.update(VERSAO_FORMATO);
+        for (byte[] fonte : fontes) {
+            crc.update(fonte);
+        }
+        return crc.getValue();
+    }
+    
+    private static List<String[]> lerCsv(byte[] fonte) {
+        List<String[]> linhas = new ArrayList<>();
+        try (BufferedReader leitor = new BufferedReader(
+                new InputStreamReader(new ByteArrayInputStream(fonte), StandardCharsets.UTF_8))) {
+            String linha;
+            while ((linha = leitor.readLine()) != null) {
+                if (!linha.isBlank() && !linha.startsWith("#")) {
+                    linhas.add(linha.split(";"));
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Erro ao ler tabela geográfica: " + e.getMessage(), e);
+        }
+        return linhas;
+    }
+    
+    private static byte[] lerRecurso(String recurso) {
+        try (InputStream entrada = TabelaGeografica.class.getClassLoader().getResourceAsStream(recurso)) {
+            if (entrada == null) {
+                throw new RuntimeException("Tabela geográfica não encontrada: " + recurso);
+            }
+            return entrada.readAllBytes();
+        } catch (IOException e) {
+            throw new RuntimeException("Erro ao ler tabela geográfica: " + e.getMessage(), e);
+        }
+    }
+}
\ No newline at end of file
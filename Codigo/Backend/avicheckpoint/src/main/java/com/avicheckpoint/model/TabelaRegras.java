@@ -0,0 +1,81 @@
+package com.avicheckpoint.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tabela versionada de regras de análise, como persistida em JSON.
+ * A ordem das regras define a ordem das mensagens no resultado.
+ */
+public class TabelaRegras {
+    
+    private String versao;
+    
+    /**
+     * Pesos da pontuação geral. Fazem parte da versão: mudar um peso exige
+     * uma nova versão da tabela, e os resultados antigos podem ser recalculados.
+     */
+    private Pesos pesos = new Pesos();
+    private List<RegraAnalise> regras = new ArrayList<>();
+    
+    /**
+     * Pontos somados por ponto forte e descontados por ponto a melhorar e por alerta.
+     */
+    public static class Pesos {
+        private int pontoForte = 10;
+        private int pontoAMelhorar = 3;
+        private int alerta = 8;
+        
+        public int getPontoForte() {
+            return pontoForte;
+        }
+        
+        public void setPontoForte(int pontoForte) {
+            this.pontoForte = pontoForte;
+        }
+        
+        public int getPontoAMelhorar() {
+            return pontoAMelhorar;
+        }
+        
+        public void setPontoAMelhorar(int pontoAMelhorar) {
+            this.pontoAMelhorar = pontoAMelhorar;
+        }
+        
+        public int getAlerta() {
+            return alerta;
+        }
+        
+        public void setAlerta(int alerta) {
+            this.alerta = alerta;
+        }
+    }
+    
+    // Constructors
+    public TabelaRegras() {}
+    
+    // Getters and Setters
+    public String getVersao() {
+        return versao;
+    }
+    
+    public void setVersao(String versao) {
+        this.versao = versao;
+    }
+    
+    public Pesos getPesos() {
+        return pesos;
+    }
+    
+    public void setPesos(Pesos pesos) {
+        this.pesos = pesos;
+    }
+    
+    public List<RegraAnalise> getRegras() {
+        return regras;
+    }
+    
+    public void setRegras(List<RegraAnalise> regras) {
+        this.regras = regras;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,109 @@
+package com.avicheckpoint.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Tarefa de análise de um formulário enfileirada para processamento assíncrono.
+ * Serve de identificador para o cliente acompanhar o andamento da análise.
+ */
+public class TarefaAnalise {
+    
+    public enum Situacao {
+        PENDENTE,
+        EM_EXECUCAO,
+        CONCLUIDA,
+        FALHOU
+    }
+    
+    private String tarefaId;
+    private String formularioId;
+    private PrioridadeAnalise prioridade;
+    private Situacao situacao;
+    private LocalDateTime criadaEm;
+    private LocalDateTime iniciadaEm;
+    private LocalDateTime concluidaEm;
+    private String erro;
+    
+    // Constructors
+    public TarefaAnalise() {}
+    
+    public TarefaAnalise(String tarefaId, String formularioId, PrioridadeAnalise prioridade) {
+        this.tarefaId = tarefaId;
+        this.formularioId = formularioId;
+        this.prioridade = prioridade;
+        this.situacao = Situacao.PENDENTE;
+        this.criadaEm = LocalDateTime.now();
+    }
+    
+    /**
+     * Indica se a tarefa já terminou, com sucesso ou não.
+     */
+    public boolean isFinalizada() {
+        return situacao == Situacao.CONCLUIDA || situacao == Situacao.FALHOU;
+    }
+    
+    // Getters and Setters
+    public String getTarefaId() {
+        return tarefaId;
+    }
+    
+    public void setTarefaId(String tarefaId) {
+        this.tarefaId = tarefaId;
+    }
+    
+    public String getFormularioId() {
+        return formularioId;
+    }
+    
+    public void setFormularioId(String formularioId) {
+        this.formularioId = formularioId;
+    }
+    
+    public PrioridadeAnalise getPrioridade() {
+        return prioridade;
+    }
+    
+    public void setPrioridade(PrioridadeAnalise prioridade) {
+        this.prioridade = prioridade;
+    }
+    
+    public Situacao getSituacao() {
+        return situacao;
+    }
+    
+    public void setSituacao(Situacao situacao) {
+        this.situacao = situacao;
+    }
+    
+    public LocalDateTime getCriadaEm() {
+        return criadaEm;
+    }
+    
+    public void setCriadaEm(LocalDateTime criadaEm) {
+        this.criadaEm = criadaEm;
+    }
+    
+    public LocalDateTime getIniciadaEm() {
+        return iniciadaEm;
+    }
+    
+    public void setIniciadaEm(LocalDateTime iniciadaEm) {
+        this.iniciadaEm = iniciadaEm;
+    }
+    
+    public LocalDateTime getConcluidaEm() {
+        return concluidaEm;
+    }
+    
+    public void setConcluidaEm(LocalDateTime concluidaEm) {
+        this.concluidaEm = concluidaEm;
+    }
+    
+    public String getErro() {
+        return erro;
+    }
+    
+    public void setErro(String erro) {
+        this.erro = erro;
+    }
+}
\ No newline at end of file
@@ -123,6 +123,26 @@ public abstract class Usuario {
      */
     public abstract String getTipoUsuario();
     
+    /**
+     * Cópia independente do usuário, do mesmo tipo.
+     */
+    public abstract Usuario copiar();
+    
+    /**
+     * Copia os campos comuns para a cópia criada pela classe filha. O endereço
+     * é copiado; os demais campos são imutáveis e podem ser compartilhados.
+     */
+    protected void copiarPara(Usuario copia) {
+        copia.usuarioId = usuarioId;
+        copia.usuarioNomeCompleto = usuarioNomeCompleto;
+        copia.usuarioDataNascimento = usuarioDataNascimento;
+        copia.usuarioEmail = usuarioEmail;
+        copia.usuarioSenha = usuarioSenha;
+        copia.endereco = endereco != null ? endereco.copiar() : null;
+        copia.dataCriacao = dataCriacao;
+        copia.dataAtualizacao = dataAtualizacao;
+    }
+    
     @Override
     public String toString() {
         return "Usuario{" +
@@ -3,6 +3,7 @@ package com.avicheckpoint.model;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -39,6 +40,17 @@ public class Veterinario extends Usuario {
         return "VETERINARIO";
     }
     
+    @Override
+    public Veterinario copiar() {
+        Veterinario copia = new Veterinario();
+        copiarPara(copia);
+        copia.veterinarioCRM = veterinarioCRM;
+        copia.formacao = formacao;
+        copia.bio = bio;
+        copia.especialidades = especialidades != null ? new ArrayList<>(especialidades) : null;
+        return copia;
+    }
+    
     // Getters and Setters
     public String getVeterinarioCRM() {
         return veterinarioCRM;
@@ -0,0 +1,204 @@
+package com.avicheckpoint.repository;
+
+import com.avicheckpoint.dto.DashboardProdutorDTO;
+import com.avicheckpoint.dto.HistoricoFormularioDTO;
+import com.avicheckpoint.model.FormularioResposta;
+import com.avicheckpoint.model.ResumoFormulario;
+import com.avicheckpoint.model.StatusFormulario;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Dashboard de um produtor persistido junto aos seus formulários
+ * (dashboard.json) e atualizado incrementalmente a cada escrita.
+ *
+ * Além do DTO exibido, guarda a soma e a quantidade de pontuações que
+ * compõem a média, para que ela seja mantida sem reler os formulários.
+ * Um formulário entra nas métricas quando está ANALISADO e tem resultado.
+ */
+class DashboardMaterializado {
+    
+    private static final int TAMANHO_HISTORICO_RECENTE = 5;
+    
+    private DashboardProdutorDTO dashboard;
+    private long somaPontuacoes;
+    private int totalPontuacoes;
+    
+    // Constructors
+    DashboardMaterializado() {}
+    
+    /**
+     * Calcula o dashboard do zero a partir do manifesto de resumos.
+     * Apenas o formulário analisado mais recente é lido, para obter os alertas.
+     */
+    static DashboardMaterializado calcular(Integer produtorId, List<ResumoFormulario> resumos,
+                                           Function<String, Optional<FormularioResposta>> lerFormulario) {
+        DashboardMaterializado materializado = new DashboardMaterializado();
+        DashboardProdutorDTO dashboard = new DashboardProdutorDTO();
+        dashboard.setProdutorId(produtorId);
+        materializado.setDashboard(dashboard);
+        
+        List<HistoricoFormularioDTO> recentes = new ArrayList<>();
+        for (ResumoFormulario resumo : resumos) {
+            materializado.contabilizar(resumo, 1);
+            if (contribui(resumo)) {
+                recentes.add(HistoricoFormularioDTO.de(resumo));
+            }
+        }
+        recentes.sort(Comparator.comparing(HistoricoFormularioDTO::getDataPreenchimento).reversed());
+        
+        materializado.atualizarRecentes(recentes, null, null, lerFormulario);
+        return materializado;
+    }
+    
+    /**
+     * Aplica a substituição de um resumo por outro. {@code anterior} é nulo em
+     * uma inclusão e {@code novo} é nulo em uma exclusão. Contadores e média
+     * são ajustados por diferença; o histórico recente só é recalculado a partir
+     * do manifesto quando um de seus itens sai e há outros para ocupar a vaga.
+     */
+    void aplicar(ResumoFormulario anterior, ResumoFormulario novo, FormularioResposta formularioNovo,
+                 List<ResumoFormulario> resumos,
+                 Function<String, Optional<FormularioResposta>> lerFormulario) {
+        if (anterior != null) {
+            contabilizar(anterior, -1);
+        }
+        if (novo != null) {
+            contabilizar(novo, 1);
+        }
+        
+        List<HistoricoFormularioDTO> recentes = dashboard.getHistoricoRecente() != null ?
+                new ArrayList<>(dashboard.getHistoricoRecente()) : new ArrayList<>();
+        
+        boolean saiuDoHistorico = anterior != null &&
+                recentes.removeIf(item -> item.getFormularioId().equals(anterior.getFormularioId()));
+        if (saiuDoHistorico && recentes.size() + 1 >= TAMANHO_HISTORICO_RECENTE
+                && totalPontuacoes > recentes.size() + (contribui(novo) ? 1 : 0)) {
+            // A vaga aberta pode pertencer a um formulário mais antigo fora do histórico
+            recentes.clear();
+            for (ResumoFormulario resumo : resumos) {
+                if (contribui(resumo)) {
+                    recentes.add(HistoricoFormularioDTO.de(resumo));
+                }
+            }
+        } else if (contribui(novo)) {
+            recentes.add(HistoricoFormularioDTO.de(novo));
+        }
+        recentes.sort(Comparator.comparing(HistoricoFormularioDTO::getDataPreenchimento).reversed());
+        
+        atualizarRecentes(recentes, novo, formularioNovo, lerFormulario);
+    }
+    
+    /**
+     * Ajusta contadores, soma e quantidade de pontuações pelo resumo informado.
+     */
+    private void contabilizar(ResumoFormulario resumo, int sinal) {
+        dashboard.setTotalFormularios(dashboard.getTotalFormularios() + sinal);
+        if (resumo.getStatus() == StatusFormulario.ANALISADO) {
+            dashboard.setFormulariosAnalisados(dashboard.getFormulariosAnalisados() + sinal);
+        } else if (resumo.getStatus() == StatusFormulario.RASCUNHO) {
+            dashboard.setRascunhos(dashboard.getRascunhos() + sinal);
+        }
+        
+        if (contribui(resumo)) {
+            somaPontuacoes += (long) sinal * resumo.getPontuacaoGeral();
+            totalPontuacoes += sinal;
+        }
+    }
+    
+    /**
+     * Define o histórico recente (já ordenado) e recalcula tudo o que
+     * depende dele: média, tendência, categoria, totais e alertas da última análise.
+     */
+    private void atualizarRecentes(List<HistoricoFormularioDTO> recentes, ResumoFormulario novo,
+                                   FormularioResposta formularioNovo,
+                                   Function<String, Optional<FormularioResposta>> lerFormulario) {
+        String ultimoAnterior = dashboard.getHistoricoRecente() != null && !dashboard.getHistoricoRecente().isEmpty() ?
+                dashboard.getHistoricoRecente().get(0).getFormularioId() : null;
+        
+        if (recentes.isEmpty()) {
+            dashboard.setHistoricoRecente(null);
+            dashboard.setPontuacaoMedia(null);
+            dashboard.setUltimaPontuacao(null);
+            dashboard.setPenultimaPontuacao(null);
+            dashboard.setTendenciaPontuacao(null);
+            dashboard.setCategoriaAtual(null);
+            dashboard.setTotalPontosFortes(0);
+            dashboard.setTotalPontosAMelhorar(0);
+            dashboard.setTotalAlertas(0);
+            dashboard.setAlertasAtivos(null);
+            dashboard.setTemAlertasCriticos(false);
+            return;
+        }
+        
+        if (recentes.size() > TAMANHO_HISTORICO_RECENTE) {
+            recentes = new ArrayList<>(recentes.subList(0, TAMANHO_HISTORICO_RECENTE));
+        }
+        dashboard.setHistoricoRecente(recentes);
+        dashboard.setPontuacaoMedia((double) somaPontuacoes / totalPontuacoes);
+        
+        // Métricas evolutivas
+        HistoricoFormularioDTO ultimo = recentes.get(0);
+        dashboard.setUltimaPontuacao(ultimo.getPontuacaoGeral());
+        if (recentes.size() >= 2) {
+            dashboard.setPenultimaPontuacao(recentes.get(1).getPontuacaoGeral());
+            dashboard.setTendenciaPontuacao(DashboardProdutorDTO.calcularTendencia(
+                    dashboard.getPenultimaPontuacao(), dashboard.getUltimaPontuacao()));
+        } else {
+            dashboard.setPenultimaPontuacao(null);
+            dashboard.setTendenciaPontuacao("primeiro");
+        }
+        
+        // Estatísticas gerais da última análise
+        dashboard.setCategoriaAtual(DashboardProdutorDTO.determinarCategoria(ultimo.getPontuacaoGeral()));
+        dashboard.setTotalPontosFortes(ultimo.getTotalPontosFortes());
+        dashboard.setTotalPontosAMelhorar(ultimo.getTotalPontosAMelhorar());
+        dashboard.setTotalAlertas(ultimo.getTotalAlertas());
+        
+        // Alertas ativos: só é preciso ler um formulário quando a última análise muda
+        FormularioResposta formularioUltimo = null;
+        if (novo != null && ultimo.getFormularioId().equals(novo.getFormularioId())) {
+            formularioUltimo = formularioNovo;
+        } else if (!ultimo.getFormularioId().equals(ultimoAnterior)) {
+            formularioUltimo = lerFormulario.apply(ultimo.getFormularioId()).orElse(null);
+        }
+        
+        if (formularioUltimo != null && formularioUltimo.getResultado() != null) {
+            dashboard.setAlertasAtivos(formularioUltimo.getResultado().codigosAlertas());
+            dashboard.setTemAlertasCriticos(formularioUltimo.getResultado().isTemAlertasCriticos());
+        }
+    }
+    
+    private static boolean contribui(ResumoFormulario resumo) {
+        return resumo != null && resumo.getStatus() == StatusFormulario.ANALISADO && resumo.possuiResultado();
+    }
+    
+    // Getters and Setters
+    public DashboardProdutorDTO getDashboard() {
+        return dashboard;
+    }
+    
+    public void setDashboard(DashboardProdutorDTO dashboard) {
+        this.dashboard = dashboard;
+    }
+    
+    public long getSomaPontuacoes() {
+        return somaPontuacoes;
+    }
+    
+    public void setSomaPontuacoes(long somaPontuacoes) {
+        this.somaPontuacoes = somaPontuacoes;
+    }
+    
+    public int getTotalPontuacoes() {
+        return totalPontuacoes;
+    }
+    
+    public void setTotalPontuacoes(int totalPontuacoes) {
+        this.totalPontuacoes = totalPontuacoes;
+    }
+}
\ No newline at end of file
@@ -1,7 +1,13 @@
 package com.avicheckpoint.repository;
 
+import com.avicheckpoint.dto.DashboardProdutorDTO;
 import com.avicheckpoint.model.FormularioResposta;
+import com.avicheckpoint.model.PrioridadeAnalise;
+import com.avicheckpoint.model.ResultadoAnalise;
+import com.avicheckpoint.model.ResumoFormulario;
+import com.avicheckpoint.model.StatusFormulario;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -19,21 +25,60 @@ public interface FormularioRepository {
      */
     Optional<FormularioResposta> buscarPorId(String formularioId);
     
+    /**
+     * Retorna o status de um formulário sem ler o arquivo, ou vazio se ele não existir.
+     */
+    Optional<StatusFormulario> buscarStatus(String formularioId);
+    
+    /**
+     * Retorna a prioridade de análise de um formulário sem ler o arquivo;
+     * NORMAL se ele não tiver passado pela triagem.
+     */
+    PrioridadeAnalise buscarPrioridade(String formularioId);
+    
     /**
      * Lista todos os formulários de um produtor.
      */
     List<FormularioResposta> buscarPorProdutor(Integer produtorId);
     
+    /**
+     * Lista os resumos dos formulários de um produtor, sem carregar as respostas.
+     */
+    List<ResumoFormulario> buscarResumosPorProdutor(Integer produtorId);
+    
+    /**
+     * Retorna o dashboard materializado de um produtor.
+     */
+    DashboardProdutorDTO buscarDashboard(Integer produtorId);
+    
     /**
      * Lista formulários por status.
      */
     List<FormularioResposta> buscarPorStatus(String status);
     
+    /**
+     * Agrupa por produtor os IDs dos formulários com o status informado, sem lê-los.
+     */
+    Map<Integer, List<String>> agruparIdsPorProdutor(StatusFormulario status);
+    
     /**
      * Atualiza um formulário existente.
      */
     FormularioResposta atualizar(FormularioResposta formulario);
     
+    /**
+     * Grava novos resultados de análise de formulários de um mesmo produtor.
+     * Retorna os IDs efetivamente gravados.
+     */
+    List<String> atualizarResultados(Integer produtorId, List<FormularioResposta> formularios);
+    
+    /**
+     * Grava o resultado da análise de um formulário lido antes e o marca como
+     * analisado, se ele não tiver sido alterado desde a leitura. Retorna o
+     * formulário gravado, ou vazio se ele foi alterado ou excluído.
+     */
+    Optional<FormularioResposta> gravarAnalise(FormularioResposta lido, ResultadoAnalise resultado);
+    
     /**
      * Exclui um formulário.
      */
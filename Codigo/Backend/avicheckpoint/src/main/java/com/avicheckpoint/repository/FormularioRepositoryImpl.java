@@ -1,33 +1,96 @@
 package com.avicheckpoint.repository;
 
+import com.avicheckpoint.dto.DashboardProdutorDTO;
 import com.avicheckpoint.model.FormularioResposta;
+import com.avicheckpoint.model.PrioridadeAnalise;
+import com.avicheckpoint.model.ResultadoAnalise;
+import com.avicheckpoint.model.ResumoFormulario;
 import com.avicheckpoint.model.StatusFormulario;
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Implementação do repositório de formulários usando persistência em arquivos JSON.
  * Organiza os formulários por produtor em diretórios separados.
+ * 
+ * Escritas de um mesmo produtor são serializadas por locks listrados
+ * (produtores diferentes raramente disputam o mesmo lock) e todo arquivo é
+ * gravado em um temporário e renomeado atomicamente, de modo que leitores
+ * nunca encontram um JSON pela metade.
+ * 
+ * Cada produtor tem ainda um manifesto (resumos.json) com os metadados de
+ * todos os seus formulários, mantido a cada escrita, para que listagens e
+ * dashboards não precisem ler as respostas completas, e o dashboard
+ * materializado (dashboard.json), ajustado incrementalmente pelas mesmas escritas.
  */
 @Repository
 public class FormularioRepositoryImpl implements FormularioRepository {
     
+    private static final int NUMERO_LOCKS = 64;
+    
     private final ObjectMapper objectMapper;
-    private final String baseDir = "data/formularios";
+    private final String baseDir;
+    private final IndiceGlobalFormularios indiceGlobal;
+    private final ReentrantLock[] locksProdutores = new ReentrantLock[NUMERO_LOCKS];
+    
+    @Autowired
+    private GeradorIdFormulario geradorId;
     
     public FormularioRepositoryImpl() {
+        this("data/formularios", null);
+    }
+    
+    /**
+     * Repositório sobre outro diretório base (usado em testes).
+     */
+    public FormularioRepositoryImpl(String baseDir, GeradorIdFormulario geradorId) {
+        this.baseDir = baseDir;
+        this.geradorId = geradorId;
         this.objectMapper = new ObjectMapper();
         this.objectMapper.registerModule(new JavaTimeModule());
+        // Propriedades calculadas (ex: "completo") são serializadas mas não têm setter
+        this.objectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        this.indiceGlobal = new IndiceGlobalFormularios(baseDir, objectMapper);
+        for (int i = 0; i < NUMERO_LOCKS; i++) {
+            locksProdutores[i] = new ReentrantLock();
+        }
+    }
+    
+    /**
+     * Obtém o lock que serializa as escritas de um produtor.
+     */
+    private ReentrantLock obterLock(Integer produtorId) {
+        return locksProdutores[Math.floorMod(produtorId.hashCode(), NUMERO_LOCKS)];
+    }
+    
+    /**
+     * Grava o valor em um arquivo temporário e o renomeia atomicamente sobre o destino.
+     * Deve ser chamado com o lock do produtor adquirido.
+     */
+    private void gravarAtomicamente(String caminho, Object valor) throws IOException {
+        Path destino = Path.of(caminho);
+        Path temporario = destino.resolveSibling(destino.getFileName() + ".tmp");
+        objectMapper.writeValue(temporario.toFile(), valor);
+        Files.move(temporario, destino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
     }
     
     /**
@@ -54,6 +117,29 @@ public class FormularioRepositoryImpl implements FormularioRepository {
         return baseDir + "/" + produtorId + "/index.json";
     }
     
+    /**
+     * Obtém o caminho do manifesto de resumos de um produtor.
+     */
+    private String obterCaminhoResumos(Integer produtorId) {
+        return baseDir + "/" + produtorId + "/resumos.json";
+    }
+    
+    /**
+     * Obtém o caminho do dashboard materializado de um produtor.
+     */
+    private String obterCaminhoDashboard(Integer produtorId) {
+        return baseDir + "/" + produtorId + "/dashboard.json";
+    }
+    
+    /**
+     * Indica se o nome de arquivo corresponde a um formulário, e não a um
+     * arquivo auxiliar do diretório do produtor.
+     */
+    static boolean isArquivoFormulario(String nome) {
+        return nome.endsWith(".json") && !nome.equals("index.json") && !nome.equals("resumos.json")
+               && !nome.equals("dashboard.json");
+    }
+    
     /**
      * Lê o índice de formulários de um produtor.
      */
@@ -65,8 +151,44 @@ public class FormularioRepositoryImpl implements FormularioRepository {
             }
             return objectMapper.readValue(indexFile, new TypeReference<List<String>>() {});
         } catch (IOException e) {
-            return new ArrayList<>();
+            // Índice ilegível: reconstruir a partir dos arquivos para não perder entradas
+            return reconstruirIndice(produtorId);
+        }
+    }
+    
+    /**
+     * Reconstrói o índice de um produtor a partir dos arquivos do diretório,
+     * em ordem de criação (IDs antigos e atuais intercalados pela data).
+     */
+    private List<String> reconstruirIndice(Integer produtorId) {
+        List<String> indice = new ArrayList<>();
+        File[] arquivos = new File(baseDir + "/" + produtorId).listFiles(
+            (dir, nome) -> isArquivoFormulario(nome));
+        if (arquivos != null) {
+            for (File arquivo : arquivos) {
+                String nome = arquivo.getName();
+                indice.add(nome.substring(0, nome.length() - ".json".length()));
+            }
         }
+        indice.sort(GeradorIdFormulario.ORDEM_CRIACAO);
+        return indice;
+    }
+    
+    /**
+     * O índice em ordem de criação. Os IDs atuais são anexados nessa ordem,
+     * mas índices com IDs antigos (datas com sufixo _N, ou misturados aos
+     * atuais) podem não estar; nesse caso é ordenado pelos próprios IDs, sem
+     * ler os formulários.
+     */
+    static List<String> emOrdemCriacao(List<String> indice) {
+        for (int i = 1; i < indice.size(); i++) {
+            if (GeradorIdFormulario.ORDEM_CRIACAO.compare(indice.get(i - 1), indice.get(i)) > 0) {
+                List<String> ordenado = new ArrayList<>(indice);
+                ordenado.sort(GeradorIdFormulario.ORDEM_CRIACAO);
+                return ordenado;
+            }
+        }
+        return indice;
     }
     
     /**
@@ -75,28 +197,145 @@ public class FormularioRepositoryImpl implements FormularioRepository {
     private void salvarIndice(Integer produtorId, List<String> formularios) {
         try {
             criarDiretorioProdutor(produtorId);
-            objectMapper.writeValue(new File(obterCaminhoIndice(produtorId)), formularios);
+            gravarAtomicamente(obterCaminhoIndice(produtorId), formularios);
         } catch (IOException e) {
             throw new RuntimeException("Erro ao salvar índice: " + e.getMessage(), e);
         }
     }
     
+    /**
+     * Lê o manifesto de resumos de um produtor, em ordem de criação.
+     * Se o manifesto não existir ou estiver ilegível, é reconstruído a partir
+     * dos formulários completos. Deve ser chamado com o lock do produtor adquirido.
+     */
+    private List<ResumoFormulario> lerResumos(Integer produtorId) {
+        try {
+            File resumosFile = new File(obterCaminhoResumos(produtorId));
+            if (resumosFile.exists()) {
+                return objectMapper.readValue(resumosFile, new TypeReference<List<ResumoFormulario>>() {});
+            }
+        } catch (IOException e) {
+            // Manifesto ilegível: reconstruir abaixo
+        }
+        return reconstruirResumos(produtorId);
+    }
+    
+    /**
+     * Reconstrói o manifesto de um produtor lendo cada formulário do índice.
+     */
+    private List<ResumoFormulario> reconstruirResumos(Integer produtorId) {
+        List<ResumoFormulario> resumos = new ArrayList<>();
+        for (String formularioId : lerIndice(produtorId)) {
+            try {
+                File arquivo = new File(obterCaminhoArquivo(produtorId, formularioId));
+                if (arquivo.exists()) {
+                    resumos.add(ResumoFormulario.de(
+                        objectMapper.readValue(arquivo, FormularioResposta.class)));
+                }
+            } catch (IOException e) {
+                // Continuar com próximo formulário em caso de erro
+            }
+        }
+        return resumos;
+    }
+    
+    /**
+     * Salva o manifesto de resumos de um produtor.
+     */
+    private void salvarResumos(Integer produtorId, List<ResumoFormulario> resumos) {
+        try {
+            criarDiretorioProdutor(produtorId);
+            gravarAtomicamente(obterCaminhoResumos(produtorId), resumos);
+        } catch (IOException e) {
+            throw new RuntimeException("Erro ao salvar resumos: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Lê o dashboard materializado, ou null se ainda não existir ou estiver ilegível.
+     */
+    private DashboardMaterializado lerDashboard(Integer produtorId) {
+        try {
+            File dashboardFile = new File(obterCaminhoDashboard(produtorId));
+            if (dashboardFile.exists()) {
+                return objectMapper.readValue(dashboardFile, DashboardMaterializado.class);
+            }
+        } catch (IOException e) {
+            // Dashboard ilegível: será recalculado a partir do manifesto
+        }
+        return null;
+    }
+    
+    /**
+     * Salva o dashboard materializado de um produtor.
+     */
+    private void salvarDashboard(Integer produtorId, DashboardMaterializado dashboard) {
+        try {
+            criarDiretorioProdutor(produtorId);
+            gravarAtomicamente(obterCaminhoDashboard(produtorId), dashboard);
+        } catch (IOException e) {
+            throw new RuntimeException("Erro ao salvar dashboard: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Inclui, substitui ou (com {@code formulario} nulo) remove o resumo do
+     * formulário no manifesto e aplica a mesma mudança ao dashboard materializado.
+     * 
+     * O dashboard anterior é apagado antes de o manifesto ser gravado: se o
+     * processo cair entre as duas gravações, o dashboard é recalculado do
+     * manifesto na próxima leitura em vez de divergir dele.
+     */
+    private void atualizarResumos(Integer produtorId, String formularioId, FormularioResposta formulario) {
+        List<ResumoFormulario> resumos = lerResumos(produtorId);
+        DashboardMaterializado dashboard = lerDashboard(produtorId);
+        ResumoFormulario novo = formulario != null ? ResumoFormulario.de(formulario) : null;
+        
+        ResumoFormulario anterior = null;
+        for (int i = 0; i < resumos.size(); i++) {
+            if (resumos.get(i).getFormularioId().equals(formularioId)) {
+                anterior = novo != null ? resumos.set(i, novo) : resumos.remove(i);
+                break;
+            }
+        }
+        if (anterior == null && novo != null) {
+            resumos.add(novo);
+        }
+        
+        new File(obterCaminhoDashboard(produtorId)).delete();
+        salvarResumos(produtorId, resumos);
+        
+        if (dashboard != null) {
+            dashboard.aplicar(anterior, novo, formulario, resumos, this::buscarPorId);
+        }
+        if (dashboard == null || dashboard.getDashboard().getTotalFormularios() != resumos.size()) {
+            dashboard = DashboardMaterializado.calcular(produtorId, resumos, this::buscarPorId);
+        }
+        salvarDashboard(produtorId, dashboard);
+    }
+    
     @Override
     public FormularioResposta salvar(FormularioResposta formulario) {
+        // Gerar ID se não existir
+        if (formulario.getFormularioId() == null) {
+            formulario.setFormularioId(gerarNovoId(formulario.getProdutorId()));
+            formulario.setDataPreenchimento(LocalDateTime.now());
+        }
+        
+        ReentrantLock lock = obterLock(formulario.getProdutorId());
+        lock.lock();
         try {
-            // Gerar ID se não existir
-            if (formulario.getFormularioId() == null) {
-                formulario.setFormularioId(gerarNovoId(formulario.getProdutorId()));
-                formulario.setDataPreenchimento(LocalDateTime.now());
-            }
-            
             formulario.setDataAtualizacao(LocalDateTime.now());
             
             // Criar diretório e salvar arquivo
             criarDiretorioProdutor(formulario.getProdutorId());
             String caminhoArquivo = obterCaminhoArquivo(formulario.getProdutorId(), 
                                                        formulario.getFormularioId());
-            objectMapper.writeValue(new File(caminhoArquivo), formulario);
+            gravarAtomicamente(caminhoArquivo, formulario);
+            
+            // Registrar no índice global só depois de o arquivo estar no lugar
+            indiceGlobal.registrar(formulario.getFormularioId(), formulario.getProdutorId(),
+                                   formulario.getStatus(), formulario.getPrioridade());
             
             // Atualizar índice
             List<String> indice = lerIndice(formulario.getProdutorId());
@@ -105,44 +344,55 @@ public class FormularioRepositoryImpl implements FormularioRepository {
                 salvarIndice(formulario.getProdutorId(), indice);
             }
             
+            atualizarResumos(formulario.getProdutorId(), formulario.getFormularioId(), formulario);
+            
             return formulario;
         } catch (IOException e) {
             throw new RuntimeException("Erro ao salvar formulário: " + e.getMessage(), e);
+        } finally {
+            lock.unlock();
         }
     }
     
     @Override
     public Optional<FormularioResposta> buscarPorId(String formularioId) {
+        Integer produtorId = indiceGlobal.buscarProdutor(formularioId);
+        if (produtorId == null) {
+            return Optional.empty();
+        }
+        
         try {
-            // Buscar em todos os diretórios de produtores
-            File baseFolder = new File(baseDir);
-            if (!baseFolder.exists()) {
+            File formularioFile = new File(obterCaminhoArquivo(produtorId, formularioId));
+            if (!formularioFile.exists()) {
                 return Optional.empty();
             }
-            
-            for (File produtorDir : baseFolder.listFiles(File::isDirectory)) {
-                File formularioFile = new File(produtorDir, formularioId + ".json");
-                if (formularioFile.exists()) {
-                    FormularioResposta formulario = objectMapper.readValue(
-                        formularioFile, FormularioResposta.class);
-                    return Optional.of(formulario);
-                }
-            }
-            
-            return Optional.empty();
+            return Optional.of(objectMapper.readValue(formularioFile, FormularioResposta.class));
         } catch (IOException e) {
             return Optional.empty();
         }
     }
     
+    @Override
+    public Optional<StatusFormulario> buscarStatus(String formularioId) {
+        return Optional.ofNullable(indiceGlobal.buscarStatus(formularioId));
+    }
+    
+    @Override
+    public PrioridadeAnalise buscarPrioridade(String formularioId) {
+        PrioridadeAnalise prioridade = indiceGlobal.buscarPrioridade(formularioId);
+        return prioridade != null ? prioridade : PrioridadeAnalise.NORMAL;
+    }
+    
     @Override
     public List<FormularioResposta> buscarPorProdutor(Integer produtorId) {
         List<FormularioResposta> formularios = new ArrayList<>();
-        List<String> indice = lerIndice(produtorId);
+        List<String> indice = emOrdemCriacao(lerIndice(produtorId));
         
-        for (String formularioId : indice) {
+        // Com o índice em ordem de criação, percorrer de trás para frente
+        // já entrega o mais recente primeiro
+        for (int i = indice.size() - 1; i >= 0; i--) {
             try {
-                File arquivo = new File(obterCaminhoArquivo(produtorId, formularioId));
+                File arquivo = new File(obterCaminhoArquivo(produtorId, indice.get(i)));
                 if (arquivo.exists()) {
                     FormularioResposta formulario = objectMapper.readValue(
                         arquivo, FormularioResposta.class);
@@ -153,92 +403,195 @@ public class FormularioRepositoryImpl implements FormularioRepository {
             }
         }
         
-        // Ordenar por data de preenchimento (mais recente primeiro)
-        formularios.sort((f1, f2) -> f2.getDataPreenchimento().compareTo(f1.getDataPreenchimento()));
-        
         return formularios;
     }
     
     @Override
-    public List<FormularioResposta> buscarPorStatus(String status) {
-        List<FormularioResposta> resultado = new ArrayList<>();
-        StatusFormulario statusEnum = StatusFormulario.fromString(status);
-        
-        File baseFolder = new File(baseDir);
-        if (!baseFolder.exists()) {
-            return resultado;
+    public List<ResumoFormulario> buscarResumosPorProdutor(Integer produtorId) {
+        List<ResumoFormulario> resumos;
+        File resumosFile = new File(obterCaminhoResumos(produtorId));
+        try {
+            // O manifesto é substituído atomicamente: a leitura dispensa o lock
+            resumos = objectMapper.readValue(resumosFile, new TypeReference<List<ResumoFormulario>>() {});
+        } catch (IOException e) {
+            ReentrantLock lock = obterLock(produtorId);
+            lock.lock();
+            try {
+                resumos = lerResumos(produtorId);
+                if (!resumos.isEmpty()) {
+                    salvarResumos(produtorId, resumos);
+                }
+            } finally {
+                lock.unlock();
+            }
         }
         
-        for (File produtorDir : baseFolder.listFiles(File::isDirectory)) {
+        // Mantido em ordem de criação: inverter entrega o mais recente primeiro
+        Collections.reverse(resumos);
+        return resumos;
+    }
+    
+    @Override
+    public DashboardProdutorDTO buscarDashboard(Integer produtorId) {
+        DashboardMaterializado dashboard = lerDashboard(produtorId);
+        if (dashboard == null) {
+            ReentrantLock lock = obterLock(produtorId);
+            lock.lock();
             try {
-                Integer produtorId = Integer.parseInt(produtorDir.getName());
-                List<FormularioResposta> formulariosProdutor = buscarPorProdutor(produtorId);
-                
-                for (FormularioResposta formulario : formulariosProdutor) {
-                    if (formulario.getStatus() == statusEnum) {
-                        resultado.add(formulario);
+                dashboard = lerDashboard(produtorId);
+                if (dashboard == null) {
+                    dashboard = DashboardMaterializado.calcular(produtorId, lerResumos(produtorId), this::buscarPorId);
+                    if (dashboard.getDashboard().getTotalFormularios() > 0) {
+                        salvarDashboard(produtorId, dashboard);
                     }
                 }
-            } catch (NumberFormatException e) {
-                // Ignorar diretórios que não são IDs de produtor
+            } finally {
+                lock.unlock();
             }
         }
+        return dashboard.getDashboard();
+    }
+    
+    @Override
+    public List<FormularioResposta> buscarPorStatus(String status) {
+        List<FormularioResposta> resultado = new ArrayList<>();
+        StatusFormulario statusEnum = StatusFormulario.fromString(status);
+        
+        // Apenas os formulários indexados com o status são lidos
+        for (String formularioId : indiceGlobal.buscarPorStatus(statusEnum)) {
+            buscarPorId(formularioId)
+                .filter(formulario -> formulario.getStatus() == statusEnum)
+                .ifPresent(resultado::add);
+        }
+        
+        // Mais recente primeiro, como em buscarPorProdutor
+        resultado.sort((f1, f2) -> f2.getDataPreenchimento().compareTo(f1.getDataPreenchimento()));
         
         return resultado;
     }
     
+    @Override
+    public Map<Integer, List<String>> agruparIdsPorProdutor(StatusFormulario status) {
+        return indiceGlobal.agruparPorProdutor(status);
+    }
+    
     @Override
     public FormularioResposta atualizar(FormularioResposta formulario) {
         return salvar(formulario);
     }
     
+    /**
+     * Grava em lote os novos resultados, com uma única gravação do manifesto e
+     * do dashboard. A data de atualização não muda, pois as respostas são as
+     * mesmas. Um formulário alterado depois de lido (status ou data de
+     * atualização diferentes dos do manifesto) ou excluído é ignorado: a
+     * gravação concorrente prevalece.
+     */
+    @Override
+    public List<String> atualizarResultados(Integer produtorId, List<FormularioResposta> formularios) {
+        ReentrantLock lock = obterLock(produtorId);
+        lock.lock();
+        try {
+            List<ResumoFormulario> resumos = lerResumos(produtorId);
+            Map<String, Integer> posicoes = new HashMap<>();
+            for (int i = 0; i < resumos.size(); i++) {
+                posicoes.put(resumos.get(i).getFormularioId(), i);
+            }
+            
+            List<String> gravados = new ArrayList<>();
+            for (FormularioResposta formulario : formularios) {
+                Integer posicao = posicoes.get(formulario.getFormularioId());
+                if (posicao == null) {
+                    continue;
+                }
+                ResumoFormulario atual = resumos.get(posicao);
+                if (atual.getStatus() != formulario.getStatus() ||
+                        !Objects.equals(atual.getDataAtualizacao(), formulario.getDataAtualizacao())) {
+                    continue;
+                }
+                gravarAtomicamente(obterCaminhoArquivo(produtorId, formulario.getFormularioId()), formulario);
+                resumos.set(posicao, ResumoFormulario.de(formulario));
+                gravados.add(formulario.getFormularioId());
+            }
+            
+            if (!gravados.isEmpty()) {
+                new File(obterCaminhoDashboard(produtorId)).delete();
+                salvarResumos(produtorId, resumos);
+                salvarDashboard(produtorId, DashboardMaterializado.calcular(produtorId, resumos, this::buscarPorId));
+            }
+            return gravados;
+        } catch (IOException e) {
+            throw new RuntimeException("Erro ao gravar resultados: " + e.getMessage(), e);
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Relê o formulário com o lock do produtor e só grava se o status e a data
+     * de atualização forem os da leitura usada na análise; do contrário, uma
+     * edição feita enquanto a análise corria seria sobrescrita pelas
+     * respostas antigas.
+     */
+    @Override
+    public Optional<FormularioResposta> gravarAnalise(FormularioResposta lido, ResultadoAnalise resultado) {
+        ReentrantLock lock = obterLock(lido.getProdutorId());
+        lock.lock();
+        try {
+            Optional<FormularioResposta> atual = buscarPorId(lido.getFormularioId());
+            if (atual.isEmpty() || atual.get().getStatus() != lido.getStatus() ||
+                    !Objects.equals(atual.get().getDataAtualizacao(), lido.getDataAtualizacao())) {
+                return Optional.empty();
+            }
+            
+            FormularioResposta formulario = atual.get();
+            formulario.setResultado(resultado);
+            formulario.setStatus(StatusFormulario.ANALISADO);
+            return Optional.of(salvar(formulario));
+        } finally {
+            lock.unlock();
+        }
+    }
+    
     @Override
     public boolean excluir(String formularioId) {
-        Optional<FormularioResposta> formularioOpt = buscarPorId(formularioId);
-        if (formularioOpt.isEmpty()) {
+        Integer produtorId = indiceGlobal.buscarProdutor(formularioId);
+        if (produtorId == null) {
             return false;
         }
         
-        FormularioResposta formulario = formularioOpt.get();
-        
+        ReentrantLock lock = obterLock(produtorId);
+        lock.lock();
         try {
             // Remover arquivo
-            File arquivo = new File(obterCaminhoArquivo(formulario.getProdutorId(), formularioId));
+            File arquivo = new File(obterCaminhoArquivo(produtorId, formularioId));
             boolean removido = arquivo.delete();
             
             if (removido) {
-                // Atualizar índice
-                List<String> indice = lerIndice(formulario.getProdutorId());
+                // Atualizar índices
+                List<String> indice = lerIndice(produtorId);
                 indice.remove(formularioId);
-                salvarIndice(formulario.getProdutorId(), indice);
+                salvarIndice(produtorId, indice);
+                atualizarResumos(produtorId, formularioId, null);
+                indiceGlobal.remover(formularioId);
             }
             
             return removido;
         } catch (Exception e) {
             return false;
+        } finally {
+            lock.unlock();
         }
     }
     
     @Override
     public boolean existe(String formularioId) {
-        return buscarPorId(formularioId).isPresent();
+        return indiceGlobal.buscarProdutor(formularioId) != null;
     }
     
     @Override
     public String gerarNovoId(Integer produtorId) {
-        LocalDateTime now = LocalDateTime.now();
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd_HHmmss");
-        String baseId = "form_" + produtorId + "_" + now.format(formatter);
-        
-        // Verificar se ID já existe e adicionar sufixo se necessário
-        String novoId = baseId;
-        int contador = 1;
-        
-        while (existe(novoId)) {
-            novoId = baseId + "_" + contador;
-            contador++;
-        }
-        
-        return novoId;
+        // Sufixo ordenado no tempo e único por construção: não precisa consultar o disco
+        return "form_" + produtorId + "_" + geradorId.proximo();
     }
 }
\ No newline at end of file
@@ -0,0 +1,163 @@
+package com.avicheckpoint.repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Comparator;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Gerador de IDs de formulário no estilo Snowflake.
+ * Cada ID combina 41 bits de milissegundos desde 2024-01-01, 10 bits de nó e
+ * 12 bits de sequência, codificados em 13 caracteres base32 (Crockford) de
+ * largura fixa. A ordem lexical dos IDs acompanha a ordem de criação e a
+ * unicidade é garantida sem nenhum acesso a disco.
+ *
+ * Formulários antigos têm IDs com a data de criação
+ * (form_{produtor}_{aaaa-MM-dd_HHmmss}, com sufixo _N nas repetições), que
+ * não seguem a mesma ordem lexical; {@link #ORDEM_CRIACAO} compara os dois
+ * formatos pelo instante de criação.
+ */
+@Component
+public class GeradorIdFormulario {
+    
+    private static final long EPOCA = 1704067200000L; // 2024-01-01T00:00:00Z
+    private static final int BITS_NO = 10;
+    private static final int BITS_SEQUENCIA = 12;
+    private static final long MAX_NO = (1L << BITS_NO) - 1;
+    private static final long MASCARA_SEQUENCIA = (1L << BITS_SEQUENCIA) - 1;
+    private static final String DIGITOS = "0123456789ABCDEFGHJKMNPQRSTVWXYZ";
+    private static final char[] ALFABETO = DIGITOS.toCharArray();
+    private static final int TAMANHO = 13;
+    private static final DateTimeFormatter FORMATO_ANTIGO = DateTimeFormatter.ofPattern("yyyy-MM-dd_HHmmss");
+    
+    /**
+     * Ordem de criação entre IDs de formulário, obtida só dos IDs: pelo
+     * instante de criação e, no mesmo instante, pela sequência (ou pelo
+     * sufixo dos IDs antigos). IDs fora dos dois formatos vêm antes.
+     */
+    static final Comparator<String> ORDEM_CRIACAO = Comparator
+            .comparingLong(GeradorIdFormulario::instanteCriacao)
+            .thenComparingLong(GeradorIdFormulario::desempate)
+            .thenComparing(Comparator.naturalOrder());
+    
+    private final long noId;
+    
+    /**
+     * Último valor emitido, no formato (milissegundos << 12 | sequência).
+     * Quando a sequência estoura, o incremento avança o relógio lógico em 1ms.
+     */
+    private final AtomicLong ultimo = new AtomicLong();
+    
+    public GeradorIdFormulario(@Value("${avicheckpoint.formularios.no-id:0}") long noId) {
+        if (noId < 0 || noId > MAX_NO) {
+            throw new IllegalArgumentException("ID de nó inválido: " + noId + " (permitido 0-" + MAX_NO + ")");
+        }
+        this.noId = noId;
+    }
+    
+    /**
+     * Gera o próximo identificador. Seguro para uso concorrente e sem bloqueio.
+     */
+    public String proximo() {
+        long atual;
+        long proximo;
+        do {
+            atual = ultimo.get();
+            long agora = System.currentTimeMillis() - EPOCA;
+            proximo = agora > (atual >>> BITS_SEQUENCIA) ? agora << BITS_SEQUENCIA : atual + 1;
+        } while (!ultimo.compareAndSet(atual, proximo));
+        
+        long milissegundos = proximo >>> BITS_SEQUENCIA;
+        long valor = (milissegundos << (BITS_NO + BITS_SEQUENCIA))
+                   | (noId << BITS_SEQUENCIA)
+                   | (proximo & MASCARA_SEQUENCIA);
+        return codificar(valor);
+    }
+    
+    /**
+     * Instante de criação em milissegundos desde 1970, ou Long.MIN_VALUE se o
+     * ID não estiver em nenhum dos formatos. As datas dos IDs antigos estão
+     * no fuso local em que foram geradas.
+     */
+    static long instanteCriacao(String formularioId) {
+        String valor = valor(formularioId);
+        if (valor == null) {
+            return Long.MIN_VALUE;
+        }
+        if (valor.length() == TAMANHO && valor.indexOf('-') < 0) {
+            long decodificado = decodificar(valor);
+            return decodificado < 0 ? Long.MIN_VALUE : EPOCA + (decodificado >>> (BITS_NO + BITS_SEQUENCIA));
+        }
+        try {
+            String data = valor.length() > 17 ? valor.substring(0, 17) : valor;
+            return LocalDateTime.parse(data, FORMATO_ANTIGO).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        } catch (DateTimeParseException e) {
+            return Long.MIN_VALUE;
+        }
+    }
+    
+    /**
+     * Ordem entre IDs criados no mesmo instante: nó e sequência nos IDs
+     * atuais, sufixo _N nos antigos (0 sem sufixo).
+     */
+    private static long desempate(String formularioId) {
+        String valor = valor(formularioId);
+        if (valor == null) {
+            return 0;
+        }
+        if (valor.length() == TAMANHO && valor.indexOf('-') < 0) {
+            return Math.max(decodificar(valor), 0) & ((1L << (BITS_NO + BITS_SEQUENCIA)) - 1);
+        }
+        if (valor.length() > 18 && valor.charAt(17) == '_') {
+            try {
+                return Long.parseLong(valor.substring(18));
+            } catch (NumberFormatException e) {
+                return 0;
+            }
+        }
+        return 0;
+    }
+    
+    /**
+     * Parte do ID depois de "form_{produtor}_", ou null.
+     */
+    private static String valor(String formularioId) {
+        if (formularioId == null || !formularioId.startsWith("form_")) {
+            return null;
+        }
+        int separador = formularioId.indexOf('_', "form_".length());
+        return separador < 0 ? null : formularioId.substring(separador + 1);
+    }
+    
+    /**
+     * Valor de um ID codificado em base32, ou -1 se houver caractere inválido.
+     */
+    private static long decodificar(String codificado) {
+        long valor = 0;
+        for (int i = 0; i < codificado.length(); i++) {
+            int digito = DIGITOS.indexOf(codificado.charAt(i));
+            if (digito < 0) {
+                return -1;
+            }
+            valor = (valor << 5) | digito;
+        }
+        return valor;
+    }
+    
+    /**
+     * Codifica o valor em base32 com largura fixa, preservando a ordem numérica.
+     */
+    private String codificar(long valor) {
+        char[] saida = new char[TAMANHO];
+        for (int i = TAMANHO - 1; i >= 0; i--) {
+            saida[i] = ALFABETO[(int) (valor & 0x1F)];
+            valor >>>= 5;
+        }
+        return new String(saida);
+    }
+}
\ No newline at end of file
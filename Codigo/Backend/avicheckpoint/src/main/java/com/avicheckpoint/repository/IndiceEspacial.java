@@ -0,0 +1,137 @@
+package com.avicheckpoint.repository;
+
+import com.avicheckpoint.model.Geolocalizacao;
+import com.avicheckpoint.model.Geolocalizacao.Coordenadas;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Índice espacial em grade: a superfície é dividida em células de tamanho
+ * fixo em graus, e cada célula guarda os IDs posicionados nela. Uma busca por
+ * raio percorre apenas as células que cobrem o retângulo envolvente do
+ * círculo, de modo que o custo depende da densidade local e não do total de
+ * IDs indexados. Leituras não bloqueiam; escritas devem ser serializadas
+ * pelo chamador.
+ */
+class IndiceEspacial {
+    
+    // Células de 0,25° (cerca de 28 km de lado no equador)
+    private static final double TAMANHO_CELULA_GRAUS = 0.25;
+    private static final double KM_POR_GRAU_LATITUDE = 111.32;
+    
+    private final Map<Long, Set<Integer>> idsPorCelula = new ConcurrentHashMap<>();
+    private final Map<Integer, Coordenadas> posicoes = new ConcurrentHashMap<>();
+    
+    /**
+     * ID encontrado em uma busca, com a distância até o centro.
+     */
+    record Vizinho(Integer id, double distanciaKm) {}
+    
+    /**
+     * Inclui ou move o ID para a posição informada; sem posição, remove-o.
+     * A nova célula é publicada antes de a antiga ser esvaziada, para que
+     * buscas concorrentes não deixem de encontrá-lo durante a mudança.
+     */
+    void atualizar(Integer id, Coordenadas posicao) {
+        if (posicao == null) {
+            remover(id);
+            return;
+        }
+        idsPorCelula.computeIfAbsent(celula(posicao), c -> ConcurrentHashMap.newKeySet()).add(id);
+        Coordenadas anterior = posicoes.put(id, posicao);
+        if (anterior != null && celula(anterior) != celula(posicao)) {
+            removerDaCelula(celula(anterior), id);
+        }
+    }
+    
+    void remover(Integer id) {
+        Coordenadas anterior = posicoes.remove(id);
+        if (anterior != null) {
+            removerDaCelula(celula(anterior), id);
+        }
+    }
+    
+    /**
+     * IDs a até {@code raioKm} do centro, do mais próximo ao mais distante.
+     */
+    List<Vizinho> buscarNoRaio(Coordenadas centro, double raioKm) {
+        double deltaLatitude = raioKm / KM_POR_GRAU_LATITUDE;
+        double cosseno = Math.max(Math.cos(Math.toRadians(centro.latitude())), 0.01);
+        double deltaLongitude = Math.min(raioKm / (KM_POR_GRAU_LATITUDE * cosseno), 180);
+        
+        int linhaMinima = linha(Math.max(centro.latitude() - deltaLatitude, -90));
+        int linhaMaxima = linha(Math.min(centro.latitude() + deltaLatitude, 90));
+        int colunaMinima = coluna(centro.longitude() - deltaLongitude);
+        int colunaMaxima = coluna(centro.longitude() + deltaLongitude);
+        
+        List<Vizinho> vizinhos = new ArrayList<>();
+        for (int linha = linhaMinima; linha <= linhaMaxima; linha++) {
+            for (int coluna = colunaMinima; coluna <= colunaMaxima; coluna++) {
+                Set<Integer> ids = idsPorCelula.get(chave(linha, coluna));
+                if (ids == null) {
+                    continue;
+                }
+                for (Integer id : ids) {
+                    Coordenadas posicao = posicoes.get(id);
+                    if (posicao == null) {
+                        continue;
+                    }
+                    double distancia = Geolocalizacao.distanciaKm(centro, posicao);
+                    if (distancia <= raioKm) {
+                        vizinhos.add(new Vizinho(id, distancia));
+                    }
+                }
+            }
+        }
+        vizinhos.sort(Comparator.comparingDouble(Vizinho::distanciaKm));
+        return vizinhos;
+    }
+    
+    /**
+     * Os {@code quantidade} IDs mais próximos do centro, a até {@code raioMaximoKm}.
+     * O raio de busca começa em uma célula e dobra até achar IDs suficientes,
+     * para que a busca só percorra as células vizinhas quando elas bastam.
+     */
+    List<Vizinho> buscarMaisProximos(Coordenadas centro, int quantidade, double raioMaximoKm) {
+        double raio = Math.min(TAMANHO_CELULA_GRAUS * KM_POR_GRAU_LATITUDE, raioMaximoKm);
+        while (true) {
+            List<Vizinho> vizinhos = buscarNoRaio(centro, raio);
+            if (vizinhos.size() >= quantidade || raio >= raioMaximoKm) {
+                return vizinhos.size() > quantidade ? new ArrayList<>(vizinhos.subList(0, quantidade)) : vizinhos;
+            }
+            raio = Math.min(raio * 2, raioMaximoKm);
+        }
+    }
+    
+    private void removerDaCelula(long celula, Integer id) {
+        Set<Integer> ids = idsPorCelula.get(celula);
+        if (ids != null) {
+            ids.remove(id);
+        }
+    }
+    
+    private static long celula(Coordenadas posicao) {
+        return chave(linha(posicao.latitude()), coluna(posicao.longitude()));
+    }
+    
+    private static int linha(double latitude) {
+        return (int) Math.floor((latitude + 90) / TAMANHO_CELULA_GRAUS);
+    }
+    
+    /**
+     * Coluna da longitude, sem dar a volta no antimeridiano: buscas que o
+     * atravessam não encontram o outro lado (irrelevante para o Brasil).
+     */
+    private static int coluna(double longitude) {
+        return (int) Math.floor((longitude + 180) / TAMANHO_CELULA_GRAUS);
+    }
+    
+    private static long chave(int linha, int coluna) {
+        return ((long) linha << 32) | (coluna & 0xFFFFFFFFL);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,244 @@
+package com.avicheckpoint.repository;
+
+import com.avicheckpoint.model.PrioridadeAnalise;
+import com.avicheckpoint.model.StatusFormulario;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Índice global de formulários persistido em um journal append-only.
+ * Mapeia formularioId → (produtorId, status, prioridade) e mantém o índice
+ * secundário status → IDs, de modo que consultas por status custam
+ * proporcionalmente ao tamanho do resultado.
+ * Cada linha carrega um CRC32 para que linhas truncadas por queda do processo
+ * sejam descartadas na recarga. O journal é compactado a cada inicialização.
+ */
+public class IndiceGlobalFormularios {
+    
+    private static final String ADICIONAR = "+";
+    private static final String REMOVER = "-";
+    
+    private final Path baseDir;
+    private final ObjectMapper objectMapper;
+    private final JournalArquivo journal;
+    private final Map<String, Entrada> entradas = new ConcurrentHashMap<>();
+    private final Map<StatusFormulario, Set<String>> idsPorStatus = new EnumMap<>(StatusFormulario.class);
+    
+    private record Entrada(Integer produtorId, StatusFormulario status, PrioridadeAnalise prioridade) {}
+    
+    public IndiceGlobalFormularios(String baseDir, ObjectMapper objectMapper) {
+        this.baseDir = Path.of(baseDir);
+        this.objectMapper = objectMapper;
+        this.journal = new JournalArquivo(this.baseDir.resolve("indice-global.log"));
+        for (StatusFormulario status : StatusFormulario.values()) {
+            idsPorStatus.put(status, ConcurrentHashMap.newKeySet());
+        }
+        carregar();
+    }
+    
+    /**
+     * Retorna o produtor dono do formulário, ou null se o formulário não estiver indexado.
+     */
+    public Integer buscarProdutor(String formularioId) {
+        Entrada entrada = formularioId == null ? null : entradas.get(formularioId);
+        return entrada == null ? null : entrada.produtorId();
+    }
+    
+    /**
+     * Retorna o status indexado do formulário, ou null se ele não estiver indexado.
+     */
+    public StatusFormulario buscarStatus(String formularioId) {
+        Entrada entrada = formularioId == null ? null : entradas.get(formularioId);
+        return entrada == null ? null : entrada.status();
+    }
+    
+    /**
+     * Retorna a prioridade de análise indexada do formulário, ou null se ele
+     * não estiver indexado ou não tiver passado pela triagem.
+     */
+    public PrioridadeAnalise buscarPrioridade(String formularioId) {
+        Entrada entrada = formularioId == null ? null : entradas.get(formularioId);
+        return entrada == null ? null : entrada.prioridade();
+    }
+    
+    /**
+     * Retorna os IDs dos formulários indexados com o status informado.
+     */
+    public List<String> buscarPorStatus(StatusFormulario status) {
+        return new ArrayList<>(idsPorStatus.get(status));
+    }
+    
+    /**
+     * Agrupa por produtor os IDs dos formulários indexados com o status informado.
+     */
+    public Map<Integer, List<String>> agruparPorProdutor(StatusFormulario status) {
+        Map<Integer, List<String>> grupos = new HashMap<>();
+        for (String formularioId : idsPorStatus.get(status)) {
+            Entrada entrada = entradas.get(formularioId);
+            if (entrada != null && entrada.status() == status) {
+                grupos.computeIfAbsent(entrada.produtorId(), k -> new ArrayList<>()).add(formularioId);
+            }
+        }
+        return grupos;
+    }
+    
+    /**
+     * Registra o formulário (ou sua mudança de status ou prioridade) no índice. Deve ser chamado
+     * depois de o arquivo ser gravado, para que o índice nunca aponte para um
+     * arquivo que não existe ou que não chegou a ser atualizado.
+     */
+    public synchronized void registrar(String formularioId, Integer produtorId, StatusFormulario status,
+                                       PrioridadeAnalise prioridade) {
+        Entrada nova = new Entrada(produtorId, status, prioridade);
+        if (nova.equals(entradas.get(formularioId))) {
+            return;
+        }
+        journal.anexar(formatarInclusao(formularioId, nova));
+        aplicar(formularioId, nova);
+    }
+    
+    /**
+     * Remove o formulário do índice.
+     */
+    public synchronized void remover(String formularioId) {
+        if (!entradas.containsKey(formularioId)) {
+            return;
+        }
+        journal.anexar(REMOVER + "\t" + formularioId);
+        aplicar(formularioId, null);
+    }
+    
+    /**
+     * Atualiza o mapa principal e o índice por status. Novas chaves são
+     * publicadas antes de as antigas serem removidas.
+     */
+    private void aplicar(String formularioId, Entrada nova) {
+        Entrada anterior;
+        if (nova != null) {
+            if (nova.status() != null) {
+                idsPorStatus.get(nova.status()).add(formularioId);
+            }
+            anterior = entradas.put(formularioId, nova);
+        } else {
+            anterior = entradas.remove(formularioId);
+        }
+        
+        if (anterior != null && anterior.status() != null
+                && (nova == null || anterior.status() != nova.status())) {
+            idsPorStatus.get(anterior.status()).remove(formularioId);
+        }
+    }
+    
+    /**
+     * Carrega o journal existente ou reconstrói o índice a partir dos diretórios
+     * de produtores, e em seguida reescreve o journal compactado.
+     */
+    private void carregar() {
+        try {
+            if (journal.existe()) {
+                reproduzirJournal();
+            } else {
+                reconstruirDosDiretorios();
+            }
+            compactar();
+        } catch (IOException e) {
+            throw new RuntimeException("Erro ao carregar índice global de formulários: " + e.getMessage(), e);
+        }
+    }
+    
+    private void reproduzirJournal() throws IOException {
+        for (String registro : journal.lerRegistros()) {
+            String[] campos = registro.split("\t");
+            if (ADICIONAR.equals(campos[0]) && (campos.length == 4 || campos.length == 5)) {
+                // Registros anteriores à triagem não têm o campo de prioridade
+                aplicar(campos[1], new Entrada(Integer.parseInt(campos[2]), StatusFormulario.valueOf(campos[3]),
+                        campos.length == 5 ? PrioridadeAnalise.valueOf(campos[4]) : null));
+            } else if (ADICIONAR.equals(campos[0]) && campos.length == 3) {
+                // Registro anterior à indexação por status: ler o status do arquivo
+                Integer produtorId = Integer.parseInt(campos[2]);
+                aplicar(campos[1], lerEntrada(produtorId, campos[1]));
+            } else if (REMOVER.equals(campos[0]) && campos.length == 2) {
+                aplicar(campos[1], null);
+            }
+        }
+    }
+    
+    private void reconstruirDosDiretorios() {
+        File[] diretorios = baseDir.toFile().listFiles(File::isDirectory);
+        if (diretorios == null) {
+            return;
+        }
+        
+        for (File produtorDir : diretorios) {
+            Integer produtorId;
+            try {
+                produtorId = Integer.parseInt(produtorDir.getName());
+            } catch (NumberFormatException e) {
+                // Ignorar diretórios que não são IDs de produtor
+                continue;
+            }
+            
+            File[] arquivos = produtorDir.listFiles(
+                (dir, nome) -> FormularioRepositoryImpl.isArquivoFormulario(nome));
+            if (arquivos == null) {
+                continue;
+            }
+            for (File arquivo : arquivos) {
+                String nome = arquivo.getName();
+                String formularioId = nome.substring(0, nome.length() - ".json".length());
+                aplicar(formularioId, lerEntrada(produtorId, formularioId));
+            }
+        }
+    }
+    
+    /**
+     * Lê apenas os campos status e prioridade de um arquivo de formulário.
+     */
+    private Entrada lerEntrada(Integer produtorId, String formularioId) {
+        File arquivo = baseDir.resolve(produtorId + "/" + formularioId + ".json").toFile();
+        try {
+            JsonNode formulario = objectMapper.readTree(arquivo);
+            return new Entrada(produtorId, lerEnum(formulario, "status", StatusFormulario.class),
+                    lerEnum(formulario, "prioridade", PrioridadeAnalise.class));
+        } catch (IOException e) {
+            return new Entrada(produtorId, null, null);
+        }
+    }
+    
+    private static <E extends Enum<E>> E lerEnum(JsonNode formulario, String campo, Class<E> tipo) {
+        JsonNode valor = formulario.get(campo);
+        try {
+            return valor != null && !valor.isNull() ? Enum.valueOf(tipo, valor.asText()) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+    
+    /**
+     * Reescreve o journal apenas com as entradas vivas.
+     */
+    private synchronized void compactar() throws IOException {
+        List<String> registros = new ArrayList<>();
+        for (Map.Entry<String, Entrada> entrada : entradas.entrySet()) {
+            registros.add(formatarInclusao(entrada.getKey(), entrada.getValue()));
+        }
+        journal.reescrever(registros);
+    }
+    
+    private String formatarInclusao(String formularioId, Entrada entrada) {
+        return ADICIONAR + "\t" + formularioId + "\t" + entrada.produtorId()
+               + (entrada.status() != null ? "\t" + entrada.status().name() : "")
+               + (entrada.status() != null && entrada.prioridade() != null ? "\t" + entrada.prioridade().name() : "");
+    }
+}
\ No newline at end of file
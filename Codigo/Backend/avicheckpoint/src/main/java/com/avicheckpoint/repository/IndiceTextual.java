@@ -0,0 +1,130 @@
+package com.avicheckpoint.repository;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Índice invertido de textos: cada termo aponta para os IDs cujos textos o
+ * contêm, com o número de ocorrências. Uma busca intersecta as listas dos
+ * termos da consulta, começando pela menor, em vez de percorrer os textos.
+ *
+ * Os termos são as palavras em minúsculas e sem acentos, com o plural em
+ * "s" reduzido ao singular, para que "Clínicas" e "clinica" coincidam.
+ * Leituras não bloqueiam; escritas devem ser serializadas pelo chamador.
+ */
+class IndiceTextual {
+    
+    private final Map<String, Map<Integer, Integer>> ocorrenciasPorTermo = new ConcurrentHashMap<>();
+    private final Map<Integer, Map<String, Integer>> termosPorId = new ConcurrentHashMap<>();
+    
+    /**
+     * Indexa os textos do ID, substituindo os indexados antes.
+     */
+    void atualizar(Integer id, List<String> textos) {
+        Map<String, Integer> termos = new HashMap<>();
+        for (String texto : textos) {
+            for (String termo : termos(texto)) {
+                termos.merge(termo, 1, Integer::sum);
+            }
+        }
+        
+        termos.forEach((termo, ocorrencias) -> ocorrenciasPorTermo
+                .computeIfAbsent(termo, t -> new ConcurrentHashMap<>())
+                .put(id, ocorrencias));
+        Map<String, Integer> anteriores = termos.isEmpty() ? termosPorId.remove(id) : termosPorId.put(id, termos);
+        if (anteriores != null) {
+            for (String termo : anteriores.keySet()) {
+                if (!termos.containsKey(termo)) {
+                    removerOcorrencia(termo, id);
+                }
+            }
+        }
+    }
+    
+    void remover(Integer id) {
+        Map<String, Integer> anteriores = termosPorId.remove(id);
+        if (anteriores != null) {
+            for (String termo : anteriores.keySet()) {
+                removerOcorrencia(termo, id);
+            }
+        }
+    }
+    
+    /**
+     * IDs que contêm todos os termos da consulta, com o total de ocorrências
+     * desses termos. Uma consulta sem termos não encontra nada.
+     */
+    Map<Integer, Integer> buscar(String consulta) {
+        List<Map<Integer, Integer>> listas = new ArrayList<>();
+        for (String termo : new LinkedHashSet<>(termos(consulta))) {
+            Map<Integer, Integer> lista = ocorrenciasPorTermo.get(termo);
+            if (lista == null || lista.isEmpty()) {
+                return Map.of();
+            }
+            listas.add(lista);
+        }
+        if (listas.isEmpty()) {
+            return Map.of();
+        }
+        
+        listas.sort(Comparator.comparingInt(Map::size));
+        Map<Integer, Integer> encontrados = new HashMap<>();
+        for (Map.Entry<Integer, Integer> entrada : listas.get(0).entrySet()) {
+            int total = entrada.getValue();
+            for (int i = 1; i < listas.size() && total > 0; i++) {
+                Integer ocorrencias = listas.get(i).get(entrada.getKey());
+                total = ocorrencias != null ? total + ocorrencias : 0;
+            }
+            if (total > 0) {
+                encontrados.put(entrada.getKey(), total);
+            }
+        }
+        return encontrados;
+    }
+    
+    /**
+     * Indica se os textos do ID contêm todos os termos da consulta.
+     */
+    boolean contem(Integer id, String consulta) {
+        Map<String, Integer> termos = termosPorId.get(id);
+        List<String> procurados = termos(consulta);
+        return termos != null && !procurados.isEmpty() && termos.keySet().containsAll(procurados);
+    }
+    
+    /**
+     * Termos de um texto, na ordem em que aparecem.
+     */
+    static List<String> termos(String texto) {
+        List<String> termos = new ArrayList<>();
+        if (texto == null || texto.isBlank()) {
+            return termos;
+        }
+        String normalizado = Normalizer.normalize(texto, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT);
+        for (String palavra : normalizado.split("[^\\p{L}\\p{N}]+")) {
+            if (!palavra.isEmpty()) {
+                termos.add(singular(palavra));
+            }
+        }
+        return termos;
+    }
+    
+    private static String singular(String palavra) {
+        return palavra.length() > 3 && palavra.endsWith("s") ? palavra.substring(0, palavra.length() - 1) : palavra;
+    }
+    
+    private void removerOcorrencia(String termo, Integer id) {
+        Map<Integer, Integer> lista = ocorrenciasPorTermo.get(termo);
+        if (lista != null) {
+            lista.remove(id);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,118 @@
+package com.avicheckpoint.repository;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Arquivo de registros append-only, um registro por linha.
+ * Cada linha é prefixada com o CRC32 do conteúdo, de modo que linhas truncadas
+ * por queda do processo ou corrompidas são descartadas na leitura.
+ * O conteúdo de um registro não pode conter quebras de linha.
+ * Cada gravação só retorna depois de os dados chegarem ao disco.
+ */
+public class JournalArquivo {
+    
+    private final Path arquivo;
+    
+    public JournalArquivo(Path arquivo) {
+        this.arquivo = arquivo;
+    }
+    
+    public boolean existe() {
+        return Files.exists(arquivo);
+    }
+    
+    /**
+     * Anexa um registro ao final do arquivo e o força para o disco.
+     */
+    public synchronized void anexar(String conteudo) {
+        try {
+            criarDiretorio();
+            gravar(arquivo, formatarLinha(conteudo), StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new RuntimeException("Erro ao gravar em " + arquivo + ": " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Lê os registros válidos, na ordem em que foram gravados.
+     */
+    public List<String> lerRegistros() throws IOException {
+        List<String> registros = new ArrayList<>();
+        if (!existe()) {
+            return registros;
+        }
+        
+        for (String linha : Files.readAllLines(arquivo, StandardCharsets.UTF_8)) {
+            int separador = linha.indexOf('\t');
+            if (separador < 0) {
+                continue;
+            }
+            String conteudo = linha.substring(separador + 1);
+            if (linha.substring(0, separador).equals(calcularChecksum(conteudo))) {
+                registros.add(conteudo);
+            }
+            // Linhas com checksum inválido estão corrompidas ou truncadas
+        }
+        return registros;
+    }
+    
+    /**
+     * Substitui todo o conteúdo do arquivo, via arquivo temporário e rename atômico.
+     */
+    public synchronized void reescrever(Collection<String> registros) throws IOException {
+        criarDiretorio();
+        Path temporario = arquivo.resolveSibling(arquivo.getFileName() + ".tmp");
+        
+        StringBuilder conteudo = new StringBuilder();
+        for (String registro : registros) {
+            conteudo.append(formatarLinha(registro));
+        }
+        // Forçado antes do rename, para que uma queda não troque o journal por um arquivo vazio
+        gravar(temporario, conteudo.toString(), StandardOpenOption.CREATE,
+               StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        
+        Files.move(temporario, arquivo,
+                   StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+    
+    /**
+     * Grava o texto pelo canal do arquivo e espera os dados chegarem ao disco.
+     */
+    private static void gravar(Path destino, String texto, StandardOpenOption... opcoes) throws IOException {
+        ByteBuffer dados = ByteBuffer.wrap(texto.getBytes(StandardCharsets.UTF_8));
+        try (FileChannel canal = FileChannel.open(destino, opcoes)) {
+            while (dados.hasRemaining()) {
+                canal.write(dados);
+            }
+            canal.force(false);
+        }
+    }
+    
+    private void criarDiretorio() throws IOException {
+        Path diretorio = arquivo.toAbsolutePath().getParent();
+        if (diretorio != null) {
+            Files.createDirectories(diretorio);
+        }
+    }
+    
+    private String formatarLinha(String conteudo) {
+        return calcularChecksum(conteudo) + "\t" + conteudo + "\n";
+    }
+    
+    private String calcularChecksum(String conteudo) {
+        CRC32 crc = new CRC32();
+        crc.update(conteudo.getBytes(StandardCharsets.UTF_8));
+        return Long.toHexString(crc.getValue());
+    }
+}
\ No newline at end of file
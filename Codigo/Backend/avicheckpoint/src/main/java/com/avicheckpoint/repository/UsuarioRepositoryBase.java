@@ -0,0 +1,367 @@
+package com.avicheckpoint.repository;
+
+import com.avicheckpoint.model.Usuario;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jakarta.annotation.PreDestroy;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Base para repositórios de usuários persistidos em arquivo JSON.
+ * Mantém todos os usuários em memória, com índices por ID, email e UF,
+ * carregados uma única vez na inicialização. Leituras não bloqueiam;
+ * escritas são serializadas. O repositório guarda cópias próprias dos
+ * usuários e entrega cópias nas leituras, de modo que só um salvar bem
+ * sucedido altera o que está em memória.
+ * 
+ * A persistência combina um snapshot (o arquivo JSON com a lista completa)
+ * e um log append-only ao lado dele, com um registro por inclusão/exclusão.
+ * Cada escrita anexa apenas o próprio registro antes de ser refletida nos
+ * índices. Uma tarefa em segundo plano compacta o log no snapshot quando ele
+ * cresce; na inicialização, o snapshot é carregado e o log reaplicado.
+ */
+public abstract class UsuarioRepositoryBase<T extends Usuario> implements UsuarioRepository<T> {
+    
+    private static final String INCLUSAO = "U";
+    private static final String EXCLUSAO = "D";
+    
+    // Registros acumulados no log antes de a compactação ser disparada
+    private static final int LIMITE_REGISTROS_LOG = 1000;
+    private static final long INTERVALO_COMPACTACAO_SEGUNDOS = 60;
+    
+    protected final ObjectMapper objectMapper;
+    private final String filePath;
+    private final TypeReference<List<T>> tipoLista;
+    private final JavaType tipoUsuario;
+    private final String descricao;
+    private final JournalArquivo log;
+    private final AtomicInteger registrosNoLog = new AtomicInteger();
+    private final ScheduledExecutorService compactador;
+    
+    private final Map<Integer, T> porId = new ConcurrentSkipListMap<>();
+    private final Map<String, Integer> idPorEmail = new ConcurrentHashMap<>();
+    private final Map<String, Set<Integer>> idsPorEstado = new ConcurrentHashMap<>();
+    private final AtomicInteger maiorId = new AtomicInteger();
+    
+    // Chaves com que cada usuário foi indexado, para removê-las quando mudam
+    private final Map<Integer, String> emailIndexado = new HashMap<>();
+    private final Map<Integer, String> estadoIndexado = new HashMap<>();
+    
+    protected UsuarioRepositoryBase(String filePath, TypeReference<List<T>> tipoLista, String descricao) {
+        this.objectMapper = new ObjectMapper();
+        this.objectMapper.registerModule(new JavaTimeModule());
+        // Propriedades calculadas (ex: "tipoUsuario") são serializadas mas não têm setter
+        this.objectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        this.filePath = filePath;
+        this.tipoLista = tipoLista;
+        this.tipoUsuario = objectMapper.getTypeFactory().constructType(tipoLista).getContentType();
+        this.descricao = descricao;
+        this.log = new JournalArquivo(Path.of(filePath.replaceAll("\\.json$", "") + ".log"));
+        
+        // Criar diretório se não existir
+        createDirectoryIfNotExists();
+        carregar();
+        
+        this.compactador = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "compactacao-" + descricao);
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.compactador.scheduleWithFixedDelay(this::compactarSeNecessario,
+                INTERVALO_COMPACTACAO_SEGUNDOS, INTERVALO_COMPACTACAO_SEGUNDOS, TimeUnit.SECONDS);
+    }
+    
+    private void createDirectoryIfNotExists() {
+        File file = new File(filePath);
+        File parentDir = file.getParentFile();
+        if (parentDir != null && !parentDir.exists()) {
+            parentDir.mkdirs();
+        }
+    }
+    
+    /**
+     * Carrega o snapshot, reaplica o log por cima dele e, se havia registros
+     * pendentes, compacta tudo em um novo snapshot.
+     */
+    private void carregar() {
+        for (T usuario : lerArquivo()) {
+            indexar(usuario);
+        }
+        
+        try {
+            List<String> registros = log.lerRegistros();
+            for (String registro : registros) {
+                reaplicar(registro);
+            }
+            if (!registros.isEmpty()) {
+                compactar();
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Erro ao carregar log de " + descricao + ": " + e.getMessage(), e);
+        }
+    }
+    
+    private void reaplicar(String registro) throws IOException {
+        String[] campos = registro.split("\t", 2);
+        if (campos.length != 2) {
+            return;
+        }
+        
+        if (INCLUSAO.equals(campos[0])) {
+            T usuario = objectMapper.readValue(campos[1], tipoUsuario);
+            indexar(usuario);
+        } else if (EXCLUSAO.equals(campos[0])) {
+            desindexar(Integer.parseInt(campos[1]));
+        }
+    }
+    
+    /**
+     * Lê o snapshot. Um snapshot ilegível interrompe a inicialização: seguir
+     * com a lista vazia faria a compactação gravar por cima dele apenas o
+     * que está no log, perdendo os usuários já compactados.
+     */
+    private List<T> lerArquivo() {
+        File file = new File(filePath);
+        if (!file.exists() || file.length() == 0) {
+            return new ArrayList<>();
+        }
+        try {
+            return objectMapper.readValue(file, tipoLista);
+        } catch (IOException e) {
+            throw new RuntimeException("Erro ao carregar " + descricao + " de " + filePath + ": " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Anexa ao log o estado completo do usuário incluído ou alterado.
+     */
+    private void persistirInclusao(T usuario) {
+        try {
+            log.anexar(INCLUSAO + "\t" + objectMapper.writeValueAsString(usuario));
+            registrosNoLog.incrementAndGet();
+        } catch (IOException e) {
+            throw new RuntimeException("Erro ao salvar " + descricao + ": " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Anexa ao log a exclusão do usuário.
+     */
+    private void persistirExclusao(Integer id) {
+        log.anexar(EXCLUSAO + "\t" + id);
+        registrosNoLog.incrementAndGet();
+    }
+    
+    private void compactarSeNecessario() {
+        if (registrosNoLog.get() < LIMITE_REGISTROS_LOG) {
+            return;
+        }
+        try {
+            compactar();
+        } catch (IOException | RuntimeException e) {
+            // Nova tentativa na próxima execução; o log continua íntegro
+        }
+    }
+    
+    /**
+     * Grava o estado atual como novo snapshot (arquivo temporário + rename
+     * atômico) e esvazia o log. Uma queda entre os dois passos é inofensiva:
+     * reaplicar o log sobre o snapshot novo produz o mesmo estado.
+     */
+    private synchronized void compactar() throws IOException {
+        createDirectoryIfNotExists();
+        Path snapshot = Path.of(filePath);
+        Path temporario = snapshot.resolveSibling(snapshot.getFileName() + ".tmp");
+        
+        objectMapper.writeValue(temporario.toFile(), new ArrayList<>(porId.values()));
+        Files.move(temporario, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        
+        log.reescrever(List.of());
+        registrosNoLog.set(0);
+    }
+    
+    /**
+     * Interrompe a compactação periódica e consolida o log pendente.
+     */
+    @PreDestroy
+    public void encerrar() {
+        compactador.shutdown();
+        if (registrosNoLog.get() > 0) {
+            try {
+                compactar();
+            } catch (IOException e) {
+                // O log permanece e será reaplicado na próxima inicialização
+            }
+        }
+    }
+    
+    /**
+     * Inclui ou substitui o usuário nos índices. Novas chaves são publicadas
+     * antes de as antigas serem removidas, para que leitores concorrentes
+     * nunca deixem de encontrar o usuário durante uma atualização.
+     */
+    private void indexar(T usuario) {
+        Integer id = usuario.getUsuarioId();
+        porId.put(id, usuario);
+        maiorId.accumulateAndGet(id, Math::max);
+        
+        String email = normalizar(usuario.getUsuarioEmail());
+        if (email != null) {
+            idPorEmail.put(email, id);
+        }
+        String emailAnterior = email != null ? emailIndexado.put(id, email) : emailIndexado.remove(id);
+        if (emailAnterior != null && !emailAnterior.equals(email)) {
+            idPorEmail.remove(emailAnterior, id);
+        }
+        
+        String estado = usuario.getEndereco() != null ? normalizar(usuario.getEndereco().getEstado()) : null;
+        if (estado != null) {
+            idsPorEstado.computeIfAbsent(estado, k -> ConcurrentHashMap.newKeySet()).add(id);
+        }
+        String estadoAnterior = estado != null ? estadoIndexado.put(id, estado) : estadoIndexado.remove(id);
+        if (estadoAnterior != null && !estadoAnterior.equals(estado)) {
+            removerDoEstado(estadoAnterior, id);
+        }
+    }
+    
+    private void desindexar(Integer id) {
+        porId.remove(id);
+        
+        String email = emailIndexado.remove(id);
+        if (email != null) {
+            idPorEmail.remove(email, id);
+        }
+        
+        String estado = estadoIndexado.remove(id);
+        if (estado != null) {
+            removerDoEstado(estado, id);
+        }
+    }
+    
+    private void removerDoEstado(String estado, Integer id) {
+        Set<Integer> ids = idsPorEstado.get(estado);
+        if (ids != null) {
+            ids.remove(id);
+        }
+    }
+    
+    private String normalizar(String valor) {
+        return valor == null ? null : valor.toLowerCase(Locale.ROOT);
+    }
+    
+    @Override
+    public synchronized T salvar(T usuario) {
+        if (usuario.getUsuarioId() == null) {
+            usuario.setUsuarioId(gerarProximoId());
+            usuario.setDataCriacao(LocalDateTime.now());
+        }
+        
+        usuario.setDataAtualizacao(LocalDateTime.now());
+        
+        persistirInclusao(usuario);
+        indexar(copiar(usuario));
+        return usuario;
+    }
+    
+    /**
+     * Cópia independente do usuário, campo a campo (ver {@link Usuario#copiar()}).
+     */
+    @SuppressWarnings("unchecked")
+    private T copiar(T usuario) {
+        return (T) usuario.copiar();
+    }
+    
+    @Override
+    public Optional<T> buscarPorId(Integer id) {
+        return id == null ? Optional.empty() : Optional.ofNullable(porId.get(id)).map(this::copiar);
+    }
+    
+    @Override
+    public Optional<T> buscarPorEmail(String email) {
+        String chave = normalizar(email);
+        if (chave == null) {
+            return Optional.empty();
+        }
+        Integer id = idPorEmail.get(chave);
+        return id == null ? Optional.empty() : buscarPorId(id);
+    }
+    
+    @Override
+    public List<T> listarTodos() {
+        return porId.values().stream()
+                .map(this::copiar)
+                .toList();
+    }
+    
+    @Override
+    public List<T> buscarPorEstado(String estado) {
+        String chave = normalizar(estado);
+        Set<Integer> ids = chave != null ? idsPorEstado.get(chave) : null;
+        if (ids == null) {
+            return List.of();
+        }
+        return ids.stream()
+                .map(porId::get)
+                .filter(u -> u != null)
+                .map(this::copiar)
+                .toList();
+    }
+    
+    /**
+     * IDs dos usuários da UF, sem ler os cadastros.
+     */
+    public List<Integer> buscarIdsPorEstado(String estado) {
+        String chave = normalizar(estado);
+        Set<Integer> ids = chave != null ? idsPorEstado.get(chave) : null;
+        return ids == null ? List.of() : List.copyOf(ids);
+    }
+    
+    @Override
+    public T atualizar(T usuario) {
+        return salvar(usuario);
+    }
+    
+    @Override
+    public synchronized boolean excluir(Integer id) {
+        if (id == null || !porId.containsKey(id)) {
+            return false;
+        }
+        
+        persistirExclusao(id);
+        desindexar(id);
+        return true;
+    }
+    
+    @Override
+    public boolean existePorEmail(String email) {
+        String chave = normalizar(email);
+        return chave != null && idPorEmail.containsKey(chave);
+    }
+    
+    @Override
+    public Integer gerarProximoId() {
+        return maiorId.get() + 1;
+    }
+}
\ No newline at end of file
@@ -1,168 +1,200 @@
 package com.avicheckpoint.repository;
 
+import com.avicheckpoint.model.EspecialidadeVeterinaria;
+import com.avicheckpoint.model.Geolocalizacao;
+import com.avicheckpoint.model.Geolocalizacao.Coordenadas;
+import com.avicheckpoint.model.PerfilVeterinario;
 import com.avicheckpoint.model.Veterinario;
 import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.springframework.context.annotation.DependsOn;
 import org.springframework.stereotype.Repository;
 
-import java.io.File;
-import java.io.IOException;
-import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Implementação do repositório para Veterinario usando persistência em arquivos JSON.
+ * Além dos índices da base, mantém um índice espacial pela posição do endereço
+ * e índices invertidos dos textos do perfil (bio e especialidades) e da
+ * formação, atualizados a cada inclusão, alteração ou exclusão. Nos mesmos
+ * momentos recalcula o {@link PerfilVeterinario} usado na recomendação. As
+ * buscas para recomendação devolvem só o ID, o perfil e a distância; o
+ * cadastro é lido depois, apenas para os veterinários escolhidos.
+ * Depende da tabela geográfica, já usada ao indexar os veterinários gravados.
  */
 @Repository
-public class VeterinarioRepositoryImpl implements UsuarioRepository<Veterinario> {
+@DependsOn("geolocalizacaoService")
+public class VeterinarioRepositoryImpl extends UsuarioRepositoryBase<Veterinario> {
     
-    private final ObjectMapper objectMapper;
-    private final String filePath;
+    private final IndiceEspacial indiceEspacial = new IndiceEspacial();
+    private final IndiceTextual indicePerfil = new IndiceTextual();
+    private final IndiceTextual indiceFormacao = new IndiceTextual();
+    private final Map<Integer, PerfilVeterinario> perfis = new ConcurrentHashMap<>();
     
-    public VeterinarioRepositoryImpl() {
-        this.objectMapper = new ObjectMapper();
-        this.objectMapper.registerModule(new JavaTimeModule());
-        this.filePath = "data/usuarios/veterinarios.json";
-        
-        // Criar diretório se não existir
-        createDirectoryIfNotExists();
-    }
-    
-    private void createDirectoryIfNotExists() {
-        File file = new File(filePath);
-        File parentDir = file.getParentFile();
-        if (parentDir != null && !parentDir.exists()) {
-            parentDir.mkdirs();
-        }
-    }
+    /**
+     * Veterinário encontrado em uma busca por proximidade: ID, perfil e distância em km.
+     */
+    public record PerfilProximo(Integer id, PerfilVeterinario perfil, double distanciaKm) {}
     
-    private List<Veterinario> lerTodos() {
-        try {
-            File file = new File(filePath);
-            if (!file.exists()) {
-                return new ArrayList<>();
-            }
-            return objectMapper.readValue(file, new TypeReference<List<Veterinario>>() {});
-        } catch (IOException e) {
-            return new ArrayList<>();
-        }
+    public VeterinarioRepositoryImpl() {
+        this("data/usuarios/veterinarios.json");
     }
     
-    private void salvarTodos(List<Veterinario> veterinarios) {
-        try {
-            createDirectoryIfNotExists();
-            objectMapper.writeValue(new File(filePath), veterinarios);
-        } catch (IOException e) {
-            throw new RuntimeException("Erro ao salvar veterinarios: " + e.getMessage(), e);
+    /**
+     * Repositório sobre outro arquivo (usado em testes).
+     */
+    public VeterinarioRepositoryImpl(String arquivo) {
+        super(arquivo, new TypeReference<List<Veterinario>>() {}, "veterinarios");
+        for (Veterinario veterinario : listarTodos()) {
+            indexar(veterinario);
         }
     }
     
     @Override
-    public Veterinario salvar(Veterinario veterinario) {
-        List<Veterinario> veterinarios = lerTodos();
-        
-        if (veterinario.getUsuarioId() == null) {
-            veterinario.setUsuarioId(gerarProximoId());
-            veterinario.setDataCriacao(LocalDateTime.now());
-        }
-        
-        veterinario.setDataAtualizacao(LocalDateTime.now());
-        
-        // Remover se já existir (para atualização)
-        veterinarios.removeIf(v -> v.getUsuarioId().equals(veterinario.getUsuarioId()));
-        veterinarios.add(veterinario);
-        
-        salvarTodos(veterinarios);
-        return veterinario;
+    public synchronized Veterinario salvar(Veterinario veterinario) {
+        Veterinario salvo = super.salvar(veterinario);
+        indexar(salvo);
+        return salvo;
     }
     
     @Override
-    public Optional<Veterinario> buscarPorId(Integer id) {
-        return lerTodos().stream()
-                .filter(v -> v.getUsuarioId().equals(id))
-                .findFirst();
+    public synchronized boolean excluir(Integer id) {
+        boolean excluido = super.excluir(id);
+        if (excluido) {
+            indiceEspacial.remover(id);
+            indicePerfil.remover(id);
+            indiceFormacao.remover(id);
+            perfis.remove(id);
+        }
+        return excluido;
     }
     
-    @Override
-    public Optional<Veterinario> buscarPorEmail(String email) {
-        return lerTodos().stream()
-                .filter(v -> v.getUsuarioEmail().equalsIgnoreCase(email))
-                .findFirst();
+    /**
+     * Busca os veterinários a até {@code raioKm} do ponto, do mais próximo ao mais distante.
+     */
+    public List<PerfilProximo> buscarNoRaio(Coordenadas centro, double raioKm) {
+        return paraPerfis(indiceEspacial.buscarNoRaio(centro, raioKm));
     }
     
-    @Override
-    public List<Veterinario> listarTodos() {
-        return lerTodos();
+    /**
+     * Busca os {@code quantidade} veterinários mais próximos do ponto, a até {@code raioMaximoKm}.
+     */
+    public List<PerfilProximo> buscarMaisProximos(Coordenadas centro, int quantidade, double raioMaximoKm) {
+        return paraPerfis(indiceEspacial.buscarMaisProximos(centro, quantidade, raioMaximoKm));
     }
     
-    @Override
-    public List<Veterinario> buscarPorEstado(String estado) {
-        return lerTodos().stream()
-                .filter(v -> v.getEndereco() != null && 
-                           estado.equalsIgnoreCase(v.getEndereco().getEstado()))
-                .toList();
+    /**
+     * Busca os veterinários da UF, todos com a distância informada.
+     */
+    public List<PerfilProximo> buscarPerfisPorEstado(String estado, double distanciaKm) {
+        List<PerfilProximo> encontrados = new ArrayList<>();
+        for (Integer id : buscarIdsPorEstado(estado)) {
+            PerfilVeterinario perfil = perfis.get(id);
+            if (perfil != null) {
+                encontrados.add(new PerfilProximo(id, perfil, distanciaKm));
+            }
+        }
+        return encontrados;
     }
     
     /**
-     * Busca veterinários por formação/especialidade.
+     * IDs dos veterinários cujo perfil (bio e especialidades) contém todos os
+     * termos do texto, com o total de ocorrências desses termos.
      */
-    public List<Veterinario> buscarPorFormacao(String formacao) {
-        return lerTodos().stream()
-                .filter(v -> v.getFormacao() != null && 
-                           v.getFormacao().toLowerCase().contains(formacao.toLowerCase()))
-                .toList();
+    public Map<Integer, Integer> buscarIdsPorPerfil(String texto) {
+        return indicePerfil.buscar(texto);
     }
     
     /**
-     * Busca veterinários por região e especialidade (para recomendações).
+     * Perfil de recomendação do veterinário, calculado na última alteração do cadastro.
      */
-    public List<Veterinario> buscarParaRecomendacao(String estado, String especialidade) {
-        return lerTodos().stream()
-                .filter(v -> {
-                    boolean mesmoEstado = v.getEndereco() != null && 
-                                        estado.equalsIgnoreCase(v.getEndereco().getEstado());
-                    
-                    boolean temEspecialidade = especialidade == null || 
-                                             (v.getFormacao() != null && 
-                                              v.getFormacao().toLowerCase().contains(especialidade.toLowerCase()));
-                    
-                    return mesmoEstado && temEspecialidade;
-                })
-                .limit(5) // Limitar a 5 recomendações
-                .toList();
+    public PerfilVeterinario buscarPerfil(Integer id) {
+        return perfis.get(id);
     }
     
-    @Override
-    public Veterinario atualizar(Veterinario veterinario) {
-        return salvar(veterinario);
+    private void indexar(Veterinario veterinario) {
+        Integer id = veterinario.getUsuarioId();
+        Coordenadas posicao = Geolocalizacao.localizar(veterinario.getEndereco()).orElse(null);
+        indiceEspacial.atualizar(id, posicao);
+        
+        List<String> perfil = new ArrayList<>();
+        perfil.add(veterinario.getBio());
+        if (veterinario.getEspecialidades() != null) {
+            perfil.addAll(veterinario.getEspecialidades());
+        }
+        indicePerfil.atualizar(id, perfil);
+        indiceFormacao.atualizar(id, List.of(veterinario.getFormacao() != null ? veterinario.getFormacao() : ""));
+        
+        perfis.put(id, calcularPerfil(id, posicao));
     }
     
-    @Override
-    public boolean excluir(Integer id) {
-        List<Veterinario> veterinarios = lerTodos();
-        boolean removido = veterinarios.removeIf(v -> v.getUsuarioId().equals(id));
-        
-        if (removido) {
-            salvarTodos(veterinarios);
+    /**
+     * Perfil a partir do índice do perfil, que já deve estar atualizado. As
+     * métricas de avaliação são simuladas, fixas por veterinário.
+     */
+    private PerfilVeterinario calcularPerfil(Integer id, Coordenadas posicao) {
+        int especialidades = 0;
+        for (EspecialidadeVeterinaria especialidade : EspecialidadeVeterinaria.values()) {
+            if (indicePerfil.contem(id, especialidade.getTermo())) {
+                especialidades |= especialidade.getBit();
+            }
         }
         
-        return removido;
+        Random simulacao = new Random(id);
+        int anosExperiencia = simulacao.nextInt(20) + 2; // 2-22 anos
+        double avaliacaoMedia = 3.5 + simulacao.nextDouble() * 1.5; // 3.5-5.0
+        int totalAvaliacoes = simulacao.nextInt(50) + 5; // 5-55 avaliações
+        return new PerfilVeterinario(especialidades, posicao, anosExperiencia, avaliacaoMedia, totalAvaliacoes);
     }
     
-    @Override
-    public boolean existePorEmail(String email) {
-        return buscarPorEmail(email).isPresent();
+    /**
+     * Perfis dos vizinhos encontrados; os excluídos durante a busca ficam de fora.
+     */
+    private List<PerfilProximo> paraPerfis(List<IndiceEspacial.Vizinho> vizinhos) {
+        List<PerfilProximo> encontrados = new ArrayList<>(vizinhos.size());
+        for (IndiceEspacial.Vizinho vizinho : vizinhos) {
+            PerfilVeterinario perfil = perfis.get(vizinho.id());
+            if (perfil != null) {
+                encontrados.add(new PerfilProximo(vizinho.id(), perfil, vizinho.distanciaKm()));
+            }
+        }
+        return encontrados;
     }
     
-    @Override
-    public Integer gerarProximoId() {
-        List<Veterinario> veterinarios = lerTodos();
-        return veterinarios.stream()
-                .mapToInt(v -> v.getUsuarioId())
-                .max()
-                .orElse(0) + 1;
+    /**
+     * Busca veterinários por formação/especialidade, dos que mais citam os
+     * termos aos que menos citam. Sem termos, devolve todos os que têm formação.
+     */
+    public List<Veterinario> buscarPorFormacao(String formacao) {
+        if (IndiceTextual.termos(formacao).isEmpty()) {
+            return listarTodos().stream()
+                    .filter(v -> v.getFormacao() != null)
+                    .toList();
+        }
+        return indiceFormacao.buscar(formacao).entrySet().stream()
+                .sorted(Map.Entry.<Integer, Integer>comparingByValue(Comparator.reverseOrder())
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .flatMap(entrada -> buscarPorId(entrada.getKey()).stream())
+                .toList();
+    }
+    
+    /**
+     * Busca veterinários por região e especialidade (para recomendações).
+     */
+    public List<Veterinario> buscarParaRecomendacao(String estado, String especialidade) {
+        // Sem UF informada, considerar todos os veterinários
+        List<Veterinario> candidatos = estado != null ? buscarPorEstado(estado) : listarTodos();
+        Map<Integer, Integer> comFormacao = especialidade != null && !IndiceTextual.termos(especialidade).isEmpty()
+                ? indiceFormacao.buscar(especialidade) : null;
+        
+        return candidatos.stream()
+                .filter(v -> especialidade == null || 
+                             (comFormacao != null ? comFormacao.containsKey(v.getUsuarioId()) : v.getFormacao() != null))
+                .limit(5) // Limitar a 5 recomendações
+                .toList();
     }
 }
\ No newline at end of file
@@ -0,0 +1,272 @@
+package com.avicheckpoint.service;
+
+import com.avicheckpoint.model.LoteAnalise;
+import com.avicheckpoint.model.StatusFormulario;
+import com.avicheckpoint.repository.FormularioRepositoryImpl;
+import com.avicheckpoint.repository.GeradorIdFormulario;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Serviço de análise em lote dos formulários submetidos.
+ *
+ * A fila de trabalho é o próprio índice de status: o lote analisa todos os
+ * formulários SUBMETIDO e, como cada um passa a ANALISADO ao ser salvo, retomar
+ * um lote interrompido é apenas consultar o índice de novo. Os formulários de
+ * um mesmo produtor são analisados em sequência por uma única tarefa; produtores
+ * diferentes são processados em paralelo por um pool de tamanho fixo.
+ */
+@Service
+public class AnaliseLoteService {
+    
+    private static final String ARQUIVO_ESTADO = "data/formularios/lote-analise.json";
+    
+    // Formulários processados entre duas gravações do estado do lote
+    private static final int INTERVALO_CHECKPOINT = 100;
+    
+    @Autowired
+    private AnaliseService analiseService;
+    
+    @Autowired
+    private FormularioRepositoryImpl formularioRepository;
+    
+    @Autowired
+    private GeradorIdFormulario geradorId;
+    
+    @Value("${avicheckpoint.analise.lote.threads:0}")
+    private int threadsConfiguradas;
+    
+    private final ObjectMapper objectMapper;
+    
+    // Estado do lote atual (ou do último executado); acessado sob o lock do serviço
+    private LoteAnalise lote;
+    private ExecutorService executor;
+    private long inicioExecucao;
+    private int processadosNaExecucao;
+    
+    private enum Desfecho { ANALISADO, IGNORADO, FALHA }
+    
+    public AnaliseLoteService() {
+        this.objectMapper = new ObjectMapper();
+        this.objectMapper.registerModule(new JavaTimeModule());
+        this.objectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        this.lote = lerEstado();
+    }
+    
+    /**
+     * Inicia um novo lote. Se já houver um lote em execução, retorna o seu progresso.
+     */
+    public synchronized LoteAnalise iniciar() {
+        if (executor == null) {
+            lote = new LoteAnalise("lote_" + geradorId.proximo());
+            executar();
+        }
+        return copiar(lote);
+    }
+    
+    /**
+     * Retorna o progresso do lote atual ou do último lote executado.
+     */
+    public synchronized Optional<LoteAnalise> consultar() {
+        if (lote == null) {
+            return Optional.empty();
+        }
+        if (executor != null) {
+            atualizarVazao();
+        }
+        return Optional.of(copiar(lote));
+    }
+    
+    /**
+     * Retoma, na inicialização, um lote que foi interrompido antes de concluir.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void retomarLotePendente() {
+        if (lote != null && lote.getSituacao() == LoteAnalise.Situacao.EM_ANDAMENTO && executor == null) {
+            lote.setRetomadas(lote.getRetomadas() + 1);
+            executar();
+        }
+    }
+    
+    /**
+     * Interrompe o pool e grava o estado; o lote será retomado no próximo início.
+     */
+    @PreDestroy
+    public synchronized void encerrar() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+            gravarEstado();
+        }
+    }
+    
+    private void executar() {
+        int threads = threadsConfiguradas > 0 ? threadsConfiguradas : Runtime.getRuntime().availableProcessors();
+        AtomicInteger contador = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "analise-lote-" + contador.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        lote.setThreads(threads);
+        inicioExecucao = System.nanoTime();
+        processadosNaExecucao = 0;
+        
+        iniciarRodada();
+    }
+    
+    /**
+     * Distribui os formulários submetidos, agrupados por produtor, entre as threads.
+     * Ao fim de cada rodada o índice é consultado de novo, para incluir formulários
+     * submetidos durante a execução; o lote termina quando não restar nenhum.
+     */
+    private synchronized void iniciarRodada() {
+        if (executor == null) {
+            return;
+        }
+        
+        Map<Integer, List<String>> grupos = formularioRepository.agruparIdsPorProdutor(StatusFormulario.SUBMETIDO);
+        List<List<String>> ordenados = new ArrayList<>();
+        int pendentes = 0;
+        for (List<String> ids : grupos.values()) {
+            ids.removeAll(lote.getIdsComFalha());
+            if (ids.isEmpty()) {
+                continue;
+            }
+            // Críticos primeiro; IDs ordenados no tempo: na mesma prioridade, analisar na ordem de criação
+            ids.sort(Comparator.comparing(formularioRepository::buscarPrioridade).thenComparing(Comparator.naturalOrder()));
+            pendentes += ids.size();
+            ordenados.add(ids);
+        }
+        // Produtores com formulários críticos entram primeiro no pool
+        ordenados.sort(Comparator.comparing(ids -> formularioRepository.buscarPrioridade(ids.get(0))));
+        
+        List<CompletableFuture<Void>> tarefas = new ArrayList<>();
+        for (List<String> ids : ordenados) {
+            tarefas.add(CompletableFuture.runAsync(() -> analisarProdutor(ids), executor));
+        }
+        
+        lote.setPendentes(pendentes);
+        if (tarefas.isEmpty()) {
+            finalizar();
+            return;
+        }
+        
+        gravarEstado();
+        CompletableFuture.allOf(tarefas.toArray(CompletableFuture<?>[]::new))
+                .whenComplete((resultado, erro) -> iniciarRodada());
+    }
+    
+    private void finalizar() {
+        lote.setSituacao(LoteAnalise.Situacao.CONCLUIDO);
+        lote.setFinalizadoEm(LocalDateTime.now());
+        atualizarVazao();
+        gravarEstado();
+        executor.shutdown();
+        executor = null;
+    }
+    
+    private void analisarProdutor(List<String> ids) {
+        for (String formularioId : ids) {
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+            registrar(formularioId, analisar(formularioId));
+        }
+    }
+    
+    private Desfecho analisar(String formularioId) {
+        try {
+            analiseService.analisarFormulario(formularioId);
+            return Desfecho.ANALISADO;
+        } catch (RuntimeException e) {
+            // Formulário excluído ou já analisado por outra requisição não é falha
+            boolean aindaSubmetido = formularioRepository.buscarPorId(formularioId)
+                    .map(formulario -> formulario.getStatus() == StatusFormulario.SUBMETIDO)
+                    .orElse(false);
+            return aindaSubmetido ? Desfecho.FALHA : Desfecho.IGNORADO;
+        }
+    }
+    
+    private synchronized void registrar(String formularioId, Desfecho desfecho) {
+        switch (desfecho) {
+            case ANALISADO -> lote.setAnalisados(lote.getAnalisados() + 1);
+            case IGNORADO -> lote.setIgnorados(lote.getIgnorados() + 1);
+            case FALHA -> {
+                lote.setFalhas(lote.getFalhas() + 1);
+                lote.getIdsComFalha().add(formularioId);
+            }
+        }
+        lote.setProcessados(lote.getProcessados() + 1);
+        lote.setPendentes(lote.getPendentes() - 1);
+        processadosNaExecucao++;
+        
+        if (processadosNaExecucao % INTERVALO_CHECKPOINT == 0) {
+            atualizarVazao();
+            gravarEstado();
+        }
+    }
+    
+    /**
+     * Calcula a vazão da execução corrente (desde o início ou a última retomada).
+     */
+    private void atualizarVazao() {
+        double segundos = (System.nanoTime() - inicioExecucao) / 1_000_000_000.0;
+        lote.setFormulariosPorSegundo(segundos > 0 ? processadosNaExecucao / segundos : 0);
+        lote.setAtualizadoEm(LocalDateTime.now());
+    }
+    
+    private LoteAnalise copiar(LoteAnalise original) {
+        return objectMapper.convertValue(original, LoteAnalise.class);
+    }
+    
+    private LoteAnalise lerEstado() {
+        try {
+            File arquivo = new File(ARQUIVO_ESTADO);
+            if (!arquivo.exists()) {
+                return null;
+            }
+            return objectMapper.readValue(arquivo, LoteAnalise.class);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+    
+    /**
+     * Grava o estado do lote via arquivo temporário e rename atômico.
+     */
+    private void gravarEstado() {
+        try {
+            Path destino = Path.of(ARQUIVO_ESTADO);
+            Files.createDirectories(destino.toAbsolutePath().getParent());
+            Path temporario = destino.resolveSibling(destino.getFileName() + ".tmp");
+            objectMapper.writeValue(temporario.toFile(), lote);
+            Files.move(temporario, destino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // O lote continua; o próximo checkpoint tenta gravar novamente
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,72 @@
+package com.avicheckpoint.service;
+
+import com.avicheckpoint.model.EstatisticasCacheAnalise;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Mapa limitado que descarta a entrada usada há mais tempo (LRU), com
+ * contagem de acertos, falhas e descartes. Os valores guardados devem ser
+ * imutáveis, pois são entregues sem cópia. Capacidade 0 desativa o cache.
+ */
+class CacheLru<V> {
+    
+    private final int capacidade;
+    private final LinkedHashMap<String, V> valores;
+    private long acertos;
+    private long falhas;
+    private long descartes;
+    
+    CacheLru(int capacidade) {
+        this.capacidade = capacidade;
+        this.valores = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, V> maisAntigo) {
+                if (size() > CacheLru.this.capacidade) {
+                    descartes++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+    
+    /**
+     * Retorna o valor guardado para a chave, ou nulo.
+     */
+    synchronized V buscar(String chave) {
+        V valor = valores.get(chave);
+        if (valor == null) {
+            falhas++;
+            return null;
+        }
+        acertos++;
+        return valor;
+    }
+    
+    void guardar(String chave, V valor) {
+        if (capacidade > 0) {
+            synchronized (this) {
+                valores.put(chave, valor);
+            }
+        }
+    }
+    
+    /**
+     * Descarta todos os valores, mantendo as contagens.
+     */
+    synchronized void limpar() {
+        valores.clear();
+    }
+    
+    synchronized EstatisticasCacheAnalise estatisticas() {
+        EstatisticasCacheAnalise estatisticas = new EstatisticasCacheAnalise();
+        estatisticas.setCapacidade(capacidade);
+        estatisticas.setTamanho(valores.size());
+        estatisticas.setAcertos(acertos);
+        estatisticas.setFalhas(falhas);
+        estatisticas.setDescartes(descartes);
+        return estatisticas;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,56 @@
+package com.avicheckpoint.service;
+
+import com.avicheckpoint.model.EstatisticasCacheAnalise;
+import com.avicheckpoint.model.ResultadoAnalise;
+
+import java.util.List;
+
+/**
+ * Cache limitado (LRU) de resultados de análise, indexado pela chave canônica
+ * das respostas. Guarda modelos imutáveis: as listas do resultado não podem ser
+ * alteradas e são compartilhadas por todas as cópias entregues.
+ */
+class CacheResultadosAnalise {
+    
+    private final CacheLru<ResultadoAnalise> modelos;
+    
+    CacheResultadosAnalise(int capacidade) {
+        this.modelos = new CacheLru<>(capacidade);
+    }
+    
+    /**
+     * Retorna uma cópia do modelo guardado para a chave, ou nulo.
+     */
+    ResultadoAnalise buscar(String chave) {
+        ResultadoAnalise modelo = modelos.buscar(chave);
+        return modelo != null ? modelo.copiar() : null;
+    }
+    
+    /**
+     * Guarda o resultado como modelo e retorna uma cópia dele.
+     */
+    ResultadoAnalise guardar(String chave, ResultadoAnalise resultado) {
+        ResultadoAnalise modelo = congelar(resultado);
+        modelos.guardar(chave, modelo);
+        return modelo.copiar();
+    }
+    
+    void limpar() {
+        modelos.limpar();
+    }
+    
+    EstatisticasCacheAnalise estatisticas() {
+        return modelos.estatisticas();
+    }
+    
+    private static ResultadoAnalise congelar(ResultadoAnalise resultado) {
+        ResultadoAnalise modelo = resultado.copiar();
+        modelo.setPanorama(List.copyOf(resultado.getPanorama()));
+        modelo.setPontosFortes(List.copyOf(resultado.getPontosFortes()));
+        modelo.setMelhorias(List.copyOf(resultado.getMelhorias()));
+        modelo.setComentarios(List.copyOf(resultado.getComentarios()));
+        modelo.setAlertas(List.copyOf(resultado.getAlertas()));
+        modelo.setVeterinariosProximos(List.copyOf(resultado.getVeterinariosProximos()));
+        return modelo;
+    }
+}
\ No newline at end of file
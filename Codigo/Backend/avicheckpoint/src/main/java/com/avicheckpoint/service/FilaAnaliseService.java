@@ -0,0 +1,198 @@
+package com.avicheckpoint.service;
+
+import com.avicheckpoint.model.PrioridadeAnalise;
+import com.avicheckpoint.model.StatusFormulario;
+import com.avicheckpoint.model.TarefaAnalise;
+import com.avicheckpoint.repository.FormularioRepositoryImpl;
+import com.avicheckpoint.repository.GeradorIdFormulario;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fila de análises assíncronas.
+ *
+ * As requisições apenas validam o formulário pelo índice em memória e
+ * enfileiram a tarefa; a leitura, a análise e a gravação acontecem em um pool
+ * dedicado. A fila é limitada: quando está cheia a tarefa é recusada na hora,
+ * em vez de prender a thread da requisição esperando o armazenamento.
+ *
+ * A fila é ordenada pela prioridade definida na triagem da submissão e, dentro
+ * da mesma prioridade, pela ordem de chegada. Um formulário crítico espera no
+ * máximo as análises já em execução, mesmo com a fila cheia de formulários
+ * comuns, e conta com uma reserva de vagas acima da capacidade, para não ser
+ * recusado por eles.
+ * Tarefas não concluídas não sobrevivem a um reinício, mas o formulário
+ * continua SUBMETIDO e pode ser reenviado ou processado pela análise em lote.
+ */
+@Service
+public class FilaAnaliseService {
+    
+    // Tarefas finalizadas ficam disponíveis para consulta por este período
+    private static final long RETENCAO_MINUTOS = 30;
+    
+    @Autowired
+    private AnaliseService analiseService;
+    
+    @Autowired
+    private FormularioRepositoryImpl formularioRepository;
+    
+    @Autowired
+    private GeradorIdFormulario geradorId;
+    
+    @Value("${avicheckpoint.analise.fila.threads:2}")
+    private int threads;
+    
+    @Value("${avicheckpoint.analise.fila.capacidade:500}")
+    private int capacidade;
+    
+    @Value("${avicheckpoint.analise.fila.reserva-criticas:100}")
+    private int reservaCriticas;
+    
+    private ThreadPoolExecutor executor;
+    private long sequencia;
+    private final Map<String, TarefaAnalise> tarefas = new ConcurrentHashMap<>();
+    private final Map<String, String> tarefaAtivaPorFormulario = new ConcurrentHashMap<>();
+    private LocalDateTime ultimaLimpeza = LocalDateTime.now();
+    
+    @PostConstruct
+    public void iniciar() {
+        AtomicInteger contador = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new PriorityBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "analise-fila-" + contador.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+    
+    @PreDestroy
+    public void encerrar() {
+        executor.shutdown();
+    }
+    
+    /**
+     * Enfileira a análise de um formulário submetido.
+     * Se o formulário já tiver uma análise pendente, retorna a tarefa existente.
+     * Retorna vazio quando a fila está cheia.
+     */
+    public synchronized Optional<TarefaAnalise> enfileirar(String formularioId) {
+        StatusFormulario status = formularioRepository.buscarStatus(formularioId)
+                .orElseThrow(() -> new RuntimeException("Formulário não encontrado: " + formularioId));
+        
+        String tarefaAtiva = tarefaAtivaPorFormulario.get(formularioId);
+        if (tarefaAtiva != null) {
+            return Optional.of(tarefas.get(tarefaAtiva));
+        }
+        
+        if (status != StatusFormulario.SUBMETIDO) {
+            throw new RuntimeException("Apenas formulários submetidos podem ser analisados");
+        }
+        
+        PrioridadeAnalise prioridade = formularioRepository.buscarPrioridade(formularioId);
+        int limite = prioridade == PrioridadeAnalise.CRITICA ? capacidade + reservaCriticas : capacidade;
+        if (executor.getQueue().size() >= limite) {
+            return Optional.empty();
+        }
+        
+        TarefaAnalise tarefa = new TarefaAnalise("tarefa_" + geradorId.proximo(), formularioId, prioridade);
+        try {
+            executor.execute(new TarefaAgendada(tarefa, sequencia++));
+        } catch (RejectedExecutionException e) {
+            return Optional.empty();
+        }
+        
+        tarefas.put(tarefa.getTarefaId(), tarefa);
+        tarefaAtivaPorFormulario.put(formularioId, tarefa.getTarefaId());
+        removerTarefasAntigas();
+        return Optional.of(tarefa);
+    }
+    
+    /**
+     * Tarefa na fila do pool, ordenada por prioridade e, na mesma prioridade,
+     * por ordem de chegada.
+     */
+    private final class TarefaAgendada implements Runnable, Comparable<TarefaAgendada> {
+        private final TarefaAnalise tarefa;
+        private final long sequencia;
+        
+        private TarefaAgendada(TarefaAnalise tarefa, long sequencia) {
+            this.tarefa = tarefa;
+            this.sequencia = sequencia;
+        }
+        
+        @Override
+        public void run() {
+            processar(tarefa);
+        }
+        
+        @Override
+        public int compareTo(TarefaAgendada outra) {
+            int comparacao = tarefa.getPrioridade().compareTo(outra.tarefa.getPrioridade());
+            return comparacao != 0 ? comparacao : Long.compare(sequencia, outra.sequencia);
+        }
+    }
+    
+    /**
+     * Busca uma tarefa de análise pelo ID.
+     */
+    public Optional<TarefaAnalise> buscarTarefa(String tarefaId) {
+        return Optional.ofNullable(tarefas.get(tarefaId));
+    }
+    
+    /**
+     * Executa a análise em uma thread do pool. Cada mudança de situação é
+     * republicada no mapa, para ficar visível às threads que consultam a tarefa.
+     */
+    private void processar(TarefaAnalise tarefa) {
+        // Aguardar o registro da tarefa, feito logo após o enfileiramento
+        synchronized (this) {
+            tarefa.setSituacao(TarefaAnalise.Situacao.EM_EXECUCAO);
+            tarefa.setIniciadaEm(LocalDateTime.now());
+            tarefas.put(tarefa.getTarefaId(), tarefa);
+        }
+        
+        try {
+            analiseService.analisarFormulario(tarefa.getFormularioId());
+            tarefa.setSituacao(TarefaAnalise.Situacao.CONCLUIDA);
+        } catch (RuntimeException e) {
+            tarefa.setSituacao(TarefaAnalise.Situacao.FALHOU);
+            tarefa.setErro(e.getMessage());
+        }
+        tarefa.setConcluidaEm(LocalDateTime.now());
+        
+        synchronized (this) {
+            tarefas.put(tarefa.getTarefaId(), tarefa);
+            tarefaAtivaPorFormulario.remove(tarefa.getFormularioId(), tarefa.getTarefaId());
+        }
+    }
+    
+    /**
+     * Descarta tarefas finalizadas há mais que o período de retenção.
+     * Executado no máximo uma vez por minuto.
+     */
+    private void removerTarefasAntigas() {
+        LocalDateTime agora = LocalDateTime.now();
+        if (ultimaLimpeza.isAfter(agora.minusMinutes(1))) {
+            return;
+        }
+        ultimaLimpeza = agora;
+        
+        LocalDateTime limite = agora.minusMinutes(RETENCAO_MINUTOS);
+        tarefas.values().removeIf(tarefa -> tarefa.isFinalizada() && tarefa.getConcluidaEm().isBefore(limite));
+    }
+}
\ No newline at end of file
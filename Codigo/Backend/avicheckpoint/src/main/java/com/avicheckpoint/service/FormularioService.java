@@ -2,13 +2,18 @@ package com.avicheckpoint.service;
 
 import com.avicheckpoint.dto.FormularioRequestDTO;
 import com.avicheckpoint.dto.FormularioResponseDTO;
+import com.avicheckpoint.model.CatalogoMensagens;
 import com.avicheckpoint.model.FormularioResposta;
+import com.avicheckpoint.model.PrioridadeAnalise;
+import com.avicheckpoint.model.ResumoFormulario;
 import com.avicheckpoint.model.StatusFormulario;
 import com.avicheckpoint.repository.FormularioRepositoryImpl;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 
 /**
@@ -21,6 +26,9 @@ public class FormularioService {
     @Autowired
     private FormularioRepositoryImpl formularioRepository;
     
+    @Autowired
+    private RegrasAnaliseService regrasAnaliseService;
+    
     /**
      * Salva um formulário (rascunho ou completo).
      */
@@ -33,6 +41,7 @@ public class FormularioService {
         // Definir status baseado na flag submeter
         if (dto.isSubmeter() && isFormularioCompleto(dto.getRespostas())) {
             formulario.setStatus(StatusFormulario.SUBMETIDO);
+            triar(formulario);
         } else {
             formulario.setStatus(StatusFormulario.RASCUNHO);
         }
@@ -57,6 +66,7 @@ public class FormularioService {
         // Atualizar status se necessário
         if (dto.isSubmeter() && isFormularioCompleto(dto.getRespostas())) {
             formulario.setStatus(StatusFormulario.SUBMETIDO);
+            triar(formulario);
         }
         
         FormularioResposta atualizado = formularioRepository.atualizar(formulario);
@@ -73,13 +83,16 @@ public class FormularioService {
     }
     
     /**
-     * Lista todos os formulários de um produtor.
+     * Lista os resumos dos formulários de um produtor, do mais recente ao mais antigo.
+     * As respostas e a análise completas são obtidas por buscarFormularioPorId.
      */
-    public List<FormularioResponseDTO> buscarFormulariosPorProdutor(Integer produtorId) {
-        List<FormularioResposta> formularios = formularioRepository.buscarPorProdutor(produtorId);
-        return formularios.stream()
-                .map(this::mapearParaResponse)
-                .toList();
+    public List<ResumoFormulario> buscarFormulariosPorProdutor(Integer produtorId) {
+        List<ResumoFormulario> resumos = formularioRepository.buscarResumosPorProdutor(produtorId);
+        Locale idioma = LocaleContextHolder.getLocale();
+        for (ResumoFormulario resumo : resumos) {
+            resumo.setPanoramaGeral(CatalogoMensagens.mensagem(resumo.getPanoramaGeral(), idioma));
+        }
+        return resumos;
     }
     
     /**
@@ -99,16 +112,27 @@ public class FormularioService {
         FormularioResposta formulario = formularioRepository.buscarPorId(formularioId)
                 .orElseThrow(() -> new RuntimeException("Formulário não encontrado: " + formularioId));
         
-        if (!isFormularioCompleto(formulario.getRespostas())) {
+        if (!formulario.isCompleto()) {
             throw new RuntimeException("Formulário incompleto. Não é possível submeter.");
         }
         
         formulario.setStatus(StatusFormulario.SUBMETIDO);
+        triar(formulario);
         FormularioResposta atualizado = formularioRepository.atualizar(formulario);
         
         return mapearParaResponse(atualizado);
     }
     
+    /**
+     * Triagem feita ao submeter: formulários cujas respostas disparam alerta
+     * crítico passam à frente na fila de análises. Usa as mesmas regras da
+     * análise, mas consulta só as perguntas com alerta crítico.
+     */
+    private void triar(FormularioResposta formulario) {
+        boolean critico = regrasAnaliseService.getRegrasAtivas().temAlertaCritico(formulario.getRespostasCodificadas());
+        formulario.setPrioridade(critico ? PrioridadeAnalise.CRITICA : PrioridadeAnalise.NORMAL);
+    }
+    
     /**
      * Exclui um formulário.
      */
@@ -150,7 +174,8 @@ public class FormularioService {
     }
     
     /**
-     * Mapeia FormularioResposta para FormularioResponseDTO.
+     * Mapeia FormularioResposta para FormularioResponseDTO, com as mensagens
+     * da análise no idioma da requisição.
      */
     private FormularioResponseDTO mapearParaResponse(FormularioResposta formulario) {
         FormularioResponseDTO dto = new FormularioResponseDTO();
@@ -159,9 +184,10 @@ public class FormularioService {
         dto.setDataPreenchimento(formulario.getDataPreenchimento());
         dto.setDataAtualizacao(formulario.getDataAtualizacao());
         dto.setStatus(formulario.getStatus());
+        dto.setPrioridade(formulario.getPrioridade());
         dto.setRespostas(formulario.getRespostas());
-        dto.setResultado(formulario.getResultado());
-        dto.setCompleto(isFormularioCompleto(formulario.getRespostas()));
+        dto.setResultado(CatalogoMensagens.renderizar(formulario.getResultado(), LocaleContextHolder.getLocale()));
+        dto.setCompleto(formulario.isCompleto());
         
         return dto;
     }
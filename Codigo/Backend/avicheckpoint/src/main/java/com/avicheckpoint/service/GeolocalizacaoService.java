@@ -0,0 +1,25 @@
+package com.avicheckpoint.service;
+
+import com.avicheckpoint.model.Geolocalizacao;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.file.Path;
+
+/**
+ * Abre a tabela geográfica na inicialização, antes dos componentes que
+ * localizam endereços. Se ela não puder ser aberta nem compilada, a
+ * aplicação não sobe, com a causa na mensagem do erro.
+ */
+@Service
+public class GeolocalizacaoService {
+    
+    @Value("${avicheckpoint.geo.arquivo:data/geo/tabela-geografica.bin}")
+    private String arquivoTabela;
+    
+    @PostConstruct
+    public void iniciar() {
+        Geolocalizacao.carregar(Path.of(arquivoTabela));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,228 @@
+package com.avicheckpoint.service;
+
+import com.avicheckpoint.model.FormularioResposta;
+import com.avicheckpoint.model.Reanalise;
+import com.avicheckpoint.model.ResumoFormulario;
+import com.avicheckpoint.model.StatusFormulario;
+import com.avicheckpoint.repository.FormularioRepositoryImpl;
+import com.avicheckpoint.repository.GeradorIdFormulario;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Reanálise dos formulários já analisados quando as regras ou os pesos mudam.
+ *
+ * Percorre os produtores em paralelo, um produtor por tarefa. De cada um lê
+ * apenas o manifesto, para achar os resultados de outra versão das regras, e
+ * então os formulários em grupos de tamanho fixo: cada grupo é reanalisado e
+ * gravado de uma vez, com uma única atualização do manifesto e do dashboard.
+ * A memória usada fica limitada a um grupo por thread.
+ *
+ * A API continua atendendo normalmente: formulários alterados durante a
+ * reanálise são ignorados pela gravação em lote, e os analisados nesse meio
+ * tempo já saem com a versão atual. Se as regras mudarem de novo, a
+ * reanálise é interrompida; como só os resultados desatualizados são
+ * processados, iniciar outra continua de onde esta parou.
+ */
+@Service
+public class ReanaliseService {
+    
+    @Autowired
+    private AnaliseService analiseService;
+    
+    @Autowired
+    private RegrasAnaliseService regrasAnaliseService;
+    
+    @Autowired
+    private FormularioRepositoryImpl formularioRepository;
+    
+    @Autowired
+    private GeradorIdFormulario geradorId;
+    
+    @Value("${avicheckpoint.analise.reanalise.threads:0}")
+    private int threadsConfiguradas;
+    
+    @Value("${avicheckpoint.analise.reanalise.tamanho-grupo:100}")
+    private int tamanhoGrupo;
+    
+    private final ObjectMapper objectMapper;
+    
+    // Reanálise atual (ou a última executada); acessada sob o lock do serviço
+    private Reanalise reanalise;
+    private ExecutorService executor;
+    private long inicioExecucao;
+    private int processados;
+    
+    public ReanaliseService() {
+        this.objectMapper = new ObjectMapper();
+        this.objectMapper.registerModule(new JavaTimeModule());
+        this.objectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    }
+    
+    /**
+     * Inicia a reanálise com as regras em uso. Se já houver uma em execução, retorna o seu progresso.
+     */
+    public synchronized Reanalise iniciar() {
+        if (executor == null) {
+            TabelaRegrasCompilada regras = regrasAnaliseService.getRegrasAtivas();
+            reanalise = new Reanalise("reanalise_" + geradorId.proximo(), regras.getVersao());
+            executar(regras);
+        }
+        return copiar(reanalise);
+    }
+    
+    /**
+     * Retorna o progresso da reanálise atual ou da última executada.
+     */
+    public synchronized Optional<Reanalise> consultar() {
+        if (reanalise == null) {
+            return Optional.empty();
+        }
+        if (executor != null) {
+            atualizarVazao();
+        }
+        return Optional.of(copiar(reanalise));
+    }
+    
+    @PreDestroy
+    public synchronized void encerrar() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+    
+    private void executar(TabelaRegrasCompilada regras) {
+        int threads = threadsConfiguradas > 0 ? threadsConfiguradas : Runtime.getRuntime().availableProcessors();
+        AtomicInteger contador = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "reanalise-" + contador.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        reanalise.setThreads(threads);
+        inicioExecucao = System.nanoTime();
+        processados = 0;
+        
+        Set<Integer> produtores = formularioRepository.agruparIdsPorProdutor(StatusFormulario.ANALISADO).keySet();
+        reanalise.setProdutores(produtores.size());
+        List<CompletableFuture<Void>> tarefas = new ArrayList<>();
+        for (Integer produtorId : produtores) {
+            tarefas.add(CompletableFuture.runAsync(() -> reanalisarProdutor(produtorId, regras), executor));
+        }
+        CompletableFuture.allOf(tarefas.toArray(CompletableFuture<?>[]::new))
+                .whenComplete((resultado, erro) -> finalizar());
+    }
+    
+    private synchronized void finalizar() {
+        if (executor == null) {
+            return;
+        }
+        if (reanalise.getSituacao() == Reanalise.Situacao.EM_ANDAMENTO) {
+            reanalise.setSituacao(Reanalise.Situacao.CONCLUIDA);
+        }
+        reanalise.setFinalizadaEm(LocalDateTime.now());
+        atualizarVazao();
+        executor.shutdown();
+        executor = null;
+    }
+    
+    private void reanalisarProdutor(Integer produtorId, TabelaRegrasCompilada regras) {
+        List<FormularioResposta> grupo = new ArrayList<>(tamanhoGrupo);
+        for (ResumoFormulario resumo : formularioRepository.buscarResumosPorProdutor(produtorId)) {
+            if (resumo.getStatus() != StatusFormulario.ANALISADO || regras.getVersao().equals(resumo.getVersaoRegras())) {
+                continue;
+            }
+            if (Thread.currentThread().isInterrupted() || !continuar(regras)) {
+                return;
+            }
+            
+            Optional<FormularioResposta> formulario = formularioRepository.buscarPorId(resumo.getFormularioId());
+            if (formulario.isEmpty()) {
+                registrar(0, 1, 0);
+                continue;
+            }
+            try {
+                formulario.get().setResultado(analiseService.processarAnalise(regras,
+                        formulario.get().getRespostasCodificadas()));
+                grupo.add(formulario.get());
+            } catch (RuntimeException e) {
+                registrar(0, 0, 1);
+            }
+            
+            if (grupo.size() >= tamanhoGrupo) {
+                gravar(produtorId, grupo);
+                grupo.clear();
+            }
+        }
+        gravar(produtorId, grupo);
+        
+        synchronized (this) {
+            reanalise.setProdutoresConcluidos(reanalise.getProdutoresConcluidos() + 1);
+        }
+    }
+    
+    private void gravar(Integer produtorId, List<FormularioResposta> grupo) {
+        if (grupo.isEmpty()) {
+            return;
+        }
+        try {
+            int gravados = formularioRepository.atualizarResultados(produtorId, grupo).size();
+            registrar(gravados, grupo.size() - gravados, 0);
+        } catch (RuntimeException e) {
+            registrar(0, 0, grupo.size());
+        }
+    }
+    
+    /**
+     * Verifica se as regras em uso ainda são as da reanálise; se não forem, interrompe.
+     */
+    private synchronized boolean continuar(TabelaRegrasCompilada regras) {
+        if (reanalise.getSituacao() != Reanalise.Situacao.EM_ANDAMENTO) {
+            return false;
+        }
+        TabelaRegrasCompilada ativas = regrasAnaliseService.getRegrasAtivas();
+        if (ativas != regras) {
+            reanalise.setSituacao(Reanalise.Situacao.INTERROMPIDA);
+            reanalise.setMotivoInterrupcao("As regras mudaram para a versão " + ativas.getVersao() +
+                    "; inicie uma nova reanálise");
+            return false;
+        }
+        return true;
+    }
+    
+    private synchronized void registrar(int reanalisados, int ignorados, int falhas) {
+        reanalise.setReanalisados(reanalise.getReanalisados() + reanalisados);
+        reanalise.setIgnorados(reanalise.getIgnorados() + ignorados);
+        reanalise.setFalhas(reanalise.getFalhas() + falhas);
+        processados += reanalisados + ignorados + falhas;
+    }
+    
+    /**
+     * Calcula a vazão desde o início da reanálise.
+     */
+    private void atualizarVazao() {
+        double segundos = (System.nanoTime() - inicioExecucao) / 1_000_000_000.0;
+        reanalise.setFormulariosPorSegundo(segundos > 0 ? processados / segundos : 0);
+        reanalise.setAtualizadaEm(LocalDateTime.now());
+    }
+    
+    private Reanalise copiar(Reanalise original) {
+        return objectMapper.convertValue(original, Reanalise.class);
+    }
+}
\ No newline at end of file
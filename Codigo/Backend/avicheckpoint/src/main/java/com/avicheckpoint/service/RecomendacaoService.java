@@ -1,13 +1,19 @@
 package com.avicheckpoint.service;
 
 import com.avicheckpoint.dto.VeterinarioRecomendadoDTO;
+import com.avicheckpoint.model.EspecialidadeVeterinaria;
 import com.avicheckpoint.model.FormularioResposta;
+import com.avicheckpoint.model.Geolocalizacao;
+import com.avicheckpoint.model.Geolocalizacao.Coordenadas;
+import com.avicheckpoint.model.PerfilVeterinario;
 import com.avicheckpoint.model.Produtor;
+import com.avicheckpoint.model.ResumoFormulario;
 import com.avicheckpoint.model.ResultadoAnalise;
 import com.avicheckpoint.model.Veterinario;
 import com.avicheckpoint.repository.FormularioRepositoryImpl;
 import com.avicheckpoint.repository.ProdutorRepositoryImpl;
 import com.avicheckpoint.repository.VeterinarioRepositoryImpl;
+import com.avicheckpoint.repository.VeterinarioRepositoryImpl.PerfilProximo;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -17,6 +23,17 @@ import java.util.stream.Collectors;
 /**
  * Serviço para recomendação inteligente de veterinários.
  * Baseado em proximidade geográfica, especialização e necessidades do produtor.
+ *
+ * Os candidatos vêm do índice espacial do repositório de veterinários, que só
+ * percorre as células próximas ao produtor; a distância é a real entre as
+ * posições dos endereços (ver Geolocalizacao). A correspondência entre
+ * especialidades, problemas e o perfil dos veterinários é feita pelo índice
+ * invertido do repositório, sem percorrer as bios a cada consulta.
+ *
+ * Os candidatos são pontuados pelo {@link PerfilVeterinario} mantido pelo
+ * repositório à medida que são percorridos, sem ler os cadastros; só os
+ * melhores ficam retidos (ver SelecaoMelhores), e apenas para eles o
+ * cadastro é lido e o DTO montado.
  */
 @Service
 public class RecomendacaoService {
@@ -33,6 +50,29 @@ public class RecomendacaoService {
     // Raio máximo de busca em km
     private static final double RAIO_MAXIMO_KM = 100.0;
     
+    // Maior número de recomendações devolvidas em uma busca
+    static final int LIMITE_MAXIMO = 100;
+    
+    // Veterinários mais próximos avaliados na busca por problemas
+    private static final int CANDIDATOS_POR_PROBLEMAS = 50;
+    
+    // Distância assumida quando o produtor não pode ser localizado
+    private static final double DISTANCIA_PADRAO_KM = 50.0;
+    
+    // Maior pontuação primeiro; no empate, o mais próximo
+    private static final Comparator<Candidato> ORDEM_RECOMENDACAO = Comparator
+            .comparingInt(Candidato::pontuacao).reversed()
+            .thenComparingDouble(candidato -> candidato.proximo().distanciaKm());
+    
+    /**
+     * Veterinário candidato já pontuado, antes de ter o cadastro lido.
+     */
+    private record Candidato(PerfilProximo proximo, int pontuacao) {
+        PerfilVeterinario perfil() {
+            return proximo.perfil();
+        }
+    }
+    
     /**
      * Recomenda veterinários para um produtor baseado na última análise.
      */
@@ -41,35 +81,45 @@ public class RecomendacaoService {
     }
     
     /**
-     * Recomenda veterinários com parâmetros customizados.
+     * Recomenda veterinários com parâmetros customizados. O limite deve ser
+     * ao menos 1 e é reduzido a {@link #LIMITE_MAXIMO}.
      */
     public List<VeterinarioRecomendadoDTO> recomendarVeterinarios(Integer produtorId, 
                                                                Double raioKm, 
                                                                Integer limite) {
+        if (limite == null || limite < 1) {
+            throw new RuntimeException("Limite de recomendações deve ser ao menos 1: " + limite);
+        }
+        limite = Math.min(limite, LIMITE_MAXIMO);
+        
         // Buscar produtor
         Produtor produtor = produtorRepository.buscarPorId(produtorId)
                 .orElseThrow(() -> new RuntimeException("Produtor não encontrado: " + produtorId));
         
-        // Buscar última análise do produtor
-        List<FormularioResposta> formularios = formularioRepository.buscarPorProdutor(produtorId);
-        Optional<FormularioResposta> ultimaAnalise = formularios.stream()
-                .filter(f -> f.getResultado() != null)
-                .max(Comparator.comparing(FormularioResposta::getDataPreenchimento));
-        
-        // Buscar todos os veterinários
-        List<Veterinario> todosVeterinarios = veterinarioRepository.listarTodos();
-        
-        // Filtrar por proximidade e calcular recomendações
-        List<VeterinarioRecomendadoDTO> recomendacoes = todosVeterinarios.stream()
-                .map(vet -> calcularRecomendacao(vet, produtor, ultimaAnalise.orElse(null)))
-                .filter(rec -> rec.getDistanciaKm() <= raioKm)
-                .sorted(Comparator
-                        .comparing(VeterinarioRecomendadoDTO::getPontuacaoCompatibilidade, Comparator.reverseOrder())
-                        .thenComparing(VeterinarioRecomendadoDTO::getDistanciaKm))
-                .limit(limite)
-                .collect(Collectors.toList());
+        // Buscar última análise do produtor: localizar pelo resumo e ler só esse formulário
+        Optional<FormularioResposta> ultimaAnalise = formularioRepository.buscarResumosPorProdutor(produtorId)
+                .stream()
+                .filter(ResumoFormulario::possuiResultado)
+                .max(Comparator.comparing(ResumoFormulario::getDataPreenchimento))
+                .flatMap(resumo -> formularioRepository.buscarPorId(resumo.getFormularioId()));
+        
+        // Buscar apenas os veterinários dentro do raio
+        List<PerfilProximo> candidatos = buscarCandidatos(produtor, raioKm);
+        
+        // Pontuar pelos perfis, reter só os melhores e montar os DTOs deles
+        FormularioResposta analise = ultimaAnalise.orElse(null);
+        SelecaoMelhores<Candidato> melhores = new SelecaoMelhores<>(limite, ORDEM_RECOMENDACAO);
+        for (PerfilProximo proximo : candidatos) {
+            if (proximo.distanciaKm() > raioKm) {
+                continue;
+            }
+            melhores.adicionar(new Candidato(proximo, calcularPontuacaoCompatibilidade(proximo.perfil(), analise)));
+        }
         
-        return recomendacoes;
+        return melhores.resultado().stream()
+                .flatMap(candidato -> veterinario(candidato).stream()
+                        .map(veterinario -> calcularRecomendacao(veterinario, candidato, analise)))
+                .collect(Collectors.toList());
     }
     
     /**
@@ -80,15 +130,22 @@ public class RecomendacaoService {
         Produtor produtor = produtorRepository.buscarPorId(produtorId)
                 .orElseThrow(() -> new RuntimeException("Produtor não encontrado: " + produtorId));
         
-        List<Veterinario> veterinarios = veterinarioRepository.listarTodos();
+        List<PerfilProximo> candidatos = buscarMaisProximos(produtor, CANDIDATOS_POR_PROBLEMAS, RAIO_MAXIMO_KM);
+        Map<Integer, Integer> problemasPorVeterinario = contarProblemasAtendidos(problemasDetectados);
         
-        return veterinarios.stream()
-                .map(vet -> calcularRecomendacaoPorProblemas(vet, produtor, problemasDetectados))
-                .filter(rec -> rec.getPontuacaoCompatibilidade() > 50) // Mínimo de compatibilidade
-                .sorted(Comparator
-                        .comparing(VeterinarioRecomendadoDTO::getPontuacaoCompatibilidade, Comparator.reverseOrder())
-                        .thenComparing(VeterinarioRecomendadoDTO::getDistanciaKm))
-                .limit(3)
+        SelecaoMelhores<Candidato> melhores = new SelecaoMelhores<>(3, ORDEM_RECOMENDACAO);
+        for (PerfilProximo proximo : candidatos) {
+            int pontuacao = calcularPontuacaoPorEspecializacao(
+                    problemasPorVeterinario.getOrDefault(proximo.id(), 0),
+                    proximo.perfil().isEspecialistaAves());
+            if (pontuacao > 50) { // Mínimo de compatibilidade
+                melhores.adicionar(new Candidato(proximo, pontuacao));
+            }
+        }
+        
+        return melhores.resultado().stream()
+                .flatMap(candidato -> veterinario(candidato).stream()
+                        .map(veterinario -> calcularRecomendacaoPorProblemas(veterinario, candidato, problemasDetectados)))
                 .collect(Collectors.toList());
     }
     
@@ -98,46 +155,106 @@ public class RecomendacaoService {
     public List<VeterinarioRecomendadoDTO> buscarPorEspecialidade(String especialidade, 
                                                                String cidade, 
                                                                String uf) {
-        List<Veterinario> veterinarios = veterinarioRepository.listarTodos();
+        List<Veterinario> veterinarios = veterinarioRepository.buscarPorEstado(uf);
+        Map<Integer, Integer> comEspecialidade = veterinarioRepository.buscarIdsPorPerfil(especialidade);
         
         return veterinarios.stream()
-                .filter(vet -> {
-                    // Filtrar por especialidade (simulado - na prática seria um campo no modelo)
-                    String bio = vet.getBio() != null ? vet.getBio().toLowerCase() : "";
-                    return bio.contains(especialidade.toLowerCase()) ||
-                           bio.contains("avicultura") || 
-                           bio.contains("aves");
-                })
                 .filter(vet -> {
                     // Filtrar por localização
                     return vet.getEndereco() != null && 
                            vet.getEndereco().getCidade().equalsIgnoreCase(cidade) &&
                            vet.getEndereco().getEstado().equalsIgnoreCase(uf);
                 })
-                .map(this::mapearVeterinarioParaDTO)
-                .sorted(Comparator.comparing(VeterinarioRecomendadoDTO::getPontuacaoCompatibilidade, 
-                                           Comparator.reverseOrder()))
+                .flatMap(vet -> perfil(vet).stream()
+                        // Filtrar por especialidade no perfil (bio e especialidades)
+                        .filter(perfil -> comEspecialidade.containsKey(vet.getUsuarioId()) ||
+                                          perfil.isEspecialistaAves())
+                        .map(perfil -> {
+                            VeterinarioRecomendadoDTO dto = mapearVeterinarioParaDTO(vet, perfil);
+                            dto.setPontuacaoCompatibilidade(calcularPontuacaoPorEspecializacao(
+                                    comEspecialidade.containsKey(vet.getUsuarioId()) ? 1 : 0,
+                                    perfil.isEspecialistaAves()));
+                            return dto;
+                        }))
+                .sorted(Comparator.comparing(VeterinarioRecomendadoDTO::getPontuacaoCompatibilidade).reversed())
                 .collect(Collectors.toList());
     }
     
+    /**
+     * Veterinários a até {@code raioKm} do produtor. Sem a posição do produtor,
+     * considera os da mesma UF, à distância padrão.
+     */
+    private List<PerfilProximo> buscarCandidatos(Produtor produtor, double raioKm) {
+        Optional<Coordenadas> posicao = Geolocalizacao.localizar(produtor.getEndereco());
+        if (posicao.isPresent()) {
+            return veterinarioRepository.buscarNoRaio(posicao.get(), raioKm);
+        }
+        return veterinariosDaUf(produtor);
+    }
+    
+    /**
+     * Os {@code quantidade} veterinários mais próximos do produtor. Sem a
+     * posição do produtor, considera os da mesma UF, à distância padrão.
+     */
+    private List<PerfilProximo> buscarMaisProximos(Produtor produtor, int quantidade, double raioMaximoKm) {
+        Optional<Coordenadas> posicao = Geolocalizacao.localizar(produtor.getEndereco());
+        if (posicao.isPresent()) {
+            return veterinarioRepository.buscarMaisProximos(posicao.get(), quantidade, raioMaximoKm);
+        }
+        return veterinariosDaUf(produtor);
+    }
+    
+    /**
+     * Quantos dos problemas cada veterinário atende pelo perfil, montado a
+     * partir das listas do índice de cada problema.
+     */
+    private Map<Integer, Integer> contarProblemasAtendidos(List<String> problemas) {
+        Map<Integer, Integer> problemasPorVeterinario = new HashMap<>();
+        for (String problema : problemas) {
+            for (Integer id : veterinarioRepository.buscarIdsPorPerfil(problema).keySet()) {
+                problemasPorVeterinario.merge(id, 1, Integer::sum);
+            }
+        }
+        return problemasPorVeterinario;
+    }
+    
+    /**
+     * Cadastro de um candidato escolhido; vazio se ele foi excluído depois da busca.
+     */
+    private Optional<Veterinario> veterinario(Candidato candidato) {
+        return veterinarioRepository.buscarPorId(candidato.proximo().id());
+    }
+    
+    /**
+     * Perfil do veterinário; vazio se ele foi excluído depois de listado.
+     */
+    private Optional<PerfilVeterinario> perfil(Veterinario veterinario) {
+        return Optional.ofNullable(veterinarioRepository.buscarPerfil(veterinario.getUsuarioId()));
+    }
+    
+    private List<PerfilProximo> veterinariosDaUf(Produtor produtor) {
+        if (produtor.getEndereco() == null || produtor.getEndereco().getEstado() == null) {
+            return List.of();
+        }
+        return veterinarioRepository.buscarPerfisPorEstado(produtor.getEndereco().getEstado(), DISTANCIA_PADRAO_KM);
+    }
+    
     /**
      * Calcula recomendação para um veterinário específico.
      */
     private VeterinarioRecomendadoDTO calcularRecomendacao(Veterinario veterinario, 
-                                                         Produtor produtor, 
+                                                         Candidato candidato, 
                                                          FormularioResposta ultimaAnalise) {
-        VeterinarioRecomendadoDTO dto = mapearVeterinarioParaDTO(veterinario);
+        VeterinarioRecomendadoDTO dto = mapearVeterinarioParaDTO(veterinario, candidato.perfil());
         
-        // Calcular distância (simulada - na prática usaria coordenadas reais)
-        double distancia = calcularDistanciaSimulada(veterinario, produtor);
+        double distancia = candidato.proximo().distanciaKm();
         dto.setDistanciaKm(distancia);
         
-        // Calcular pontuação de compatibilidade
-        int pontuacao = calcularPontuacaoCompatibilidade(veterinario, ultimaAnalise);
-        dto.setPontuacaoCompatibilidade(pontuacao);
+        // Pontuação de compatibilidade, já calculada pelo perfil
+        dto.setPontuacaoCompatibilidade(candidato.pontuacao());
         
         // Definir motivo da recomendação
-        String motivo = gerarMotivoRecomendacao(veterinario, ultimaAnalise, distancia);
+        String motivo = gerarMotivoRecomendacao(candidato.perfil(), ultimaAnalise, distancia);
         dto.setMotivoRecomendacao(motivo);
         
         // Status de disponibilidade (simulado)
@@ -150,16 +267,14 @@ public class RecomendacaoService {
      * Calcula recomendação baseada em problemas específicos.
      */
     private VeterinarioRecomendadoDTO calcularRecomendacaoPorProblemas(Veterinario veterinario, 
-                                                                     Produtor produtor, 
+                                                                     Candidato candidato, 
                                                                      List<String> problemas) {
-        VeterinarioRecomendadoDTO dto = mapearVeterinarioParaDTO(veterinario);
+        VeterinarioRecomendadoDTO dto = mapearVeterinarioParaDTO(veterinario, candidato.perfil());
         
-        double distancia = calcularDistanciaSimulada(veterinario, produtor);
-        dto.setDistanciaKm(distancia);
+        dto.setDistanciaKm(candidato.proximo().distanciaKm());
         
-        // Pontuação baseada na especialização para os problemas
-        int pontuacao = calcularPontuacaoPorEspecializacao(veterinario, problemas);
-        dto.setPontuacaoCompatibilidade(pontuacao);
+        // Pontuação baseada na especialização para os problemas, já calculada
+        dto.setPontuacaoCompatibilidade(candidato.pontuacao());
         
         String motivo = "Especialização em: " + String.join(", ", problemas);
         dto.setMotivoRecomendacao(motivo);
@@ -172,7 +287,7 @@ public class RecomendacaoService {
     /**
      * Mapeia Veterinario para VeterinarioRecomendadoDTO.
      */
-    private VeterinarioRecomendadoDTO mapearVeterinarioParaDTO(Veterinario veterinario) {
+    private VeterinarioRecomendadoDTO mapearVeterinarioParaDTO(Veterinario veterinario, PerfilVeterinario perfil) {
         VeterinarioRecomendadoDTO dto = new VeterinarioRecomendadoDTO();
         
         // Dados básicos
@@ -189,47 +304,35 @@ public class RecomendacaoService {
             dto.setCidade(veterinario.getEndereco().getCidade());
             dto.setUf(veterinario.getEndereco().getEstado());
             dto.setCep(veterinario.getEndereco().getEnderecoCEP());
+            if (perfil.posicao() != null) {
+                dto.setLatitude(perfil.posicao().latitude());
+                dto.setLongitude(perfil.posicao().longitude());
+            }
         }
         
-        // Especialidades (simuladas baseadas na bio)
-        List<String> especialidades = extrairEspecialidades(veterinario.getBio());
+        // Especialidades reconhecidas no perfil (bio e especialidades)
+        List<String> especialidades = perfil.nomesEspecialidades();
+        if (especialidades.isEmpty()) {
+            especialidades.add("Medicina Veterinária Geral");
+        }
         dto.setEspecialidades(especialidades);
         
-        // Métricas simuladas
-        dto.setAnosExperiencia(gerarExperienciaSimulada());
-        dto.setAvaliacaoMedia(gerarAvaliacaoSimulada());
-        dto.setTotalAvaliacoes(gerarTotalAvaliacoesSimulado());
+        // Métricas (simuladas, fixas por veterinário)
+        dto.setAnosExperiencia(perfil.anosExperiencia());
+        dto.setAvaliacaoMedia(perfil.avaliacaoMedia());
+        dto.setTotalAvaliacoes(perfil.totalAvaliacoes());
         
         return dto;
     }
     
-    /**
-     * Calcula distância simulada entre veterinário e produtor.
-     */
-    private double calcularDistanciaSimulada(Veterinario veterinario, Produtor produtor) {
-        // Simulação baseada em cidades (na prática seria cálculo de coordenadas)
-        if (veterinario.getEndereco() != null && produtor.getEndereco() != null) {
-            String cidadeVet = veterinario.getEndereco().getCidade();
-            String cidadeProd = produtor.getEndereco().getCidade();
-            
-            if (cidadeVet.equals(cidadeProd)) {
-                return Math.random() * 15; // Mesma cidade: 0-15km
-            } else {
-                return 20 + (Math.random() * 60); // Cidades diferentes: 20-80km
-            }
-        }
-        return 50.0; // Distância padrão
-    }
-    
     /**
      * Calcula pontuação de compatibilidade baseada na análise.
      */
-    private int calcularPontuacaoCompatibilidade(Veterinario veterinario, FormularioResposta analise) {
+    private int calcularPontuacaoCompatibilidade(PerfilVeterinario perfil, FormularioResposta analise) {
         int pontuacao = 60; // Base
         
         // Bonus por experiência com aves
-        String bio = veterinario.getBio() != null ? veterinario.getBio().toLowerCase() : "";
-        if (bio.contains("avicultura") || bio.contains("aves")) {
+        if (perfil.isEspecialistaAves()) {
             pontuacao += 20;
         }
         
@@ -238,13 +341,8 @@ public class RecomendacaoService {
             ResultadoAnalise resultado = analise.getResultado();
             
             // Se tem alertas críticos, bonus para especialistas
-            if (resultado.getComentarios() != null) {
-                long alertasCriticos = resultado.getComentarios().stream()
-                        .filter(c -> c.toLowerCase().contains("crítico"))
-                        .count();
-                if (alertasCriticos > 0) {
-                    pontuacao += 10;
-                }
+            if (resultado.isTemAlertasCriticos()) {
+                pontuacao += 10;
             }
             
             // Bonus por pontuação baixa (mais urgente)
@@ -259,19 +357,13 @@ public class RecomendacaoService {
     /**
      * Calcula pontuação baseada em especialização para problemas específicos.
      */
-    private int calcularPontuacaoPorEspecializacao(Veterinario veterinario, List<String> problemas) {
+    private int calcularPontuacaoPorEspecializacao(int problemasAtendidos, boolean avicultura) {
         int pontuacao = 40; // Base menor para busca específica
         
-        String bio = veterinario.getBio() != null ? veterinario.getBio().toLowerCase() : "";
-        
-        for (String problema : problemas) {
-            if (bio.contains(problema.toLowerCase())) {
-                pontuacao += 15;
-            }
-        }
+        pontuacao += 15 * problemasAtendidos;
         
         // Bonus geral por avicultura
-        if (bio.contains("avicultura") || bio.contains("aves")) {
+        if (avicultura) {
             pontuacao += 20;
         }
         
@@ -281,7 +373,7 @@ public class RecomendacaoService {
     /**
      * Gera motivo da recomendação.
      */
-    private String gerarMotivoRecomendacao(Veterinario veterinario, 
+    private String gerarMotivoRecomendacao(PerfilVeterinario perfil, 
                                          FormularioResposta analise, 
                                          double distancia) {
         List<String> motivos = new ArrayList<>();
@@ -290,8 +382,7 @@ public class RecomendacaoService {
             motivos.add("Proximidade geográfica");
         }
         
-        String bio = veterinario.getBio() != null ? veterinario.getBio().toLowerCase() : "";
-        if (bio.contains("avicultura")) {
+        if (perfil.possui(EspecialidadeVeterinaria.AVICULTURA)) {
             motivos.add("Especialista em avicultura");
         }
         
@@ -303,48 +394,4 @@ public class RecomendacaoService {
         
         return motivos.isEmpty() ? "Profissional qualificado" : String.join(", ", motivos);
     }
-    
-    /**
-     * Extrai especialidades da bio do veterinário.
-     */
-    private List<String> extrairEspecialidades(String bio) {
-        List<String> especialidades = new ArrayList<>();
-        
-        if (bio != null) {
-            String bioLower = bio.toLowerCase();
-            
-            if (bioLower.contains("avicultura")) especialidades.add("Avicultura");
-            if (bioLower.contains("aves")) especialidades.add("Medicina de Aves");
-            if (bioLower.contains("nutrição")) especialidades.add("Nutrição Animal");
-            if (bioLower.contains("reprodução")) especialidades.add("Reprodução Animal");
-            if (bioLower.contains("clínica")) especialidades.add("Clínica Geral");
-        }
-        
-        if (especialidades.isEmpty()) {
-            especialidades.add("Medicina Veterinária Geral");
-        }
-        
-        return especialidades;
-    }
-    
-    /**
-     * Gera anos de experiência simulados.
-     */
-    private Integer gerarExperienciaSimulada() {
-        return (int) (Math.random() * 20) + 2; // 2-22 anos
-    }
-    
-    /**
-     * Gera avaliação média simulada.
-     */
-    private Double gerarAvaliacaoSimulada() {
-        return 3.5 + (Math.random() * 1.5); // 3.5-5.0
-    }
-    
-    /**
-     * Gera total de avaliações simulado.
-     */
-    private Integer gerarTotalAvaliacoesSimulado() {
-        return (int) (Math.random() * 50) + 5; // 5-55 avaliações
-    }
 }
\ No newline at end of file
@@ -0,0 +1,233 @@
+package com.avicheckpoint.service;
+
+import com.avicheckpoint.model.CatalogoMensagens;
+import com.avicheckpoint.model.SituacaoRegras;
+import com.avicheckpoint.model.TabelaRegras;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mantém a tabela de regras de análise em uso e a recarrega sem reiniciar
+ * a aplicação.
+ *
+ * O arquivo externo é verificado periodicamente por uma thread própria; quando
+ * muda, é lido, validado e compilado fora do caminho das requisições e só
+ * então substitui a tabela ativa, em uma única escrita de referência. As
+ * análises apenas leem essa referência e nunca esperam pela recarga. A tabela
+ * substituída é guardada para permitir reverter a última troca.
+ */
+@Service
+public class RegrasAnaliseService {
+    
+    private static final String TABELA_PADRAO = "regras/regras-analise.json";
+    
+    @Value("${avicheckpoint.analise.regras.arquivo:data/regras/regras-analise.json}")
+    private String arquivoRegras;
+    
+    @Value("${avicheckpoint.analise.regras.intervalo-segundos:5}")
+    private int intervaloSegundos;
+    
+    private final ObjectMapper objectMapper;
+    
+    /**
+     * Tabela ativa e anterior, com o arquivo de origem de cada uma, trocadas juntas.
+     */
+    private record Estado(TabelaRegrasCompilada ativa, String origem,
+                          TabelaRegrasCompilada anterior, String origemAnterior,
+                          LocalDateTime carregadaEm) {}
+    
+    private volatile Estado estado;
+    
+    // Chamados após cada troca da tabela ativa (ex.: para descartar caches)
+    private final List<Runnable> aoTrocar = new CopyOnWriteArrayList<>();
+    
+    // Acessados sob o lock do serviço
+    private long ultimaModificacao;
+    private String ultimoErro;
+    private LocalDateTime ultimoErroEm;
+    private ScheduledExecutorService observador;
+    
+    public RegrasAnaliseService() {
+        this.objectMapper = new ObjectMapper();
+        this.objectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    }
+    
+    /**
+     * Carrega a tabela inicial (arquivo externo, se existir, ou a embutida)
+     * e inicia a verificação periódica do arquivo.
+     */
+    @PostConstruct
+    public synchronized void iniciar() {
+        File arquivo = arquivoExterno();
+        if (arquivo != null && arquivo.exists()) {
+            ultimaModificacao = arquivo.lastModified();
+            ativar(new Estado(TabelaRegrasCompilada.compilar(lerArquivo(arquivo)), arquivo.getPath(),
+                    null, null, LocalDateTime.now()));
+        } else {
+            ativar(new Estado(TabelaRegrasCompilada.compilar(lerTabelaPadrao()), TABELA_PADRAO,
+                    null, null, LocalDateTime.now()));
+        }
+        
+        if (arquivo != null && intervaloSegundos > 0) {
+            observador = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "regras-analise");
+                thread.setDaemon(true);
+                return thread;
+            });
+            observador.scheduleWithFixedDelay(this::verificarArquivo,
+                    intervaloSegundos, intervaloSegundos, TimeUnit.SECONDS);
+        }
+    }
+    
+    @PreDestroy
+    public void encerrar() {
+        if (observador != null) {
+            observador.shutdownNow();
+        }
+    }
+    
+    /**
+     * Tabela compilada em uso. Nunca bloqueia.
+     */
+    TabelaRegrasCompilada getRegrasAtivas() {
+        return estado.ativa();
+    }
+    
+    /**
+     * Registra uma ação executada após cada troca da tabela ativa.
+     */
+    void aoTrocarRegras(Runnable acao) {
+        aoTrocar.add(acao);
+    }
+    
+    /**
+     * Relê o arquivo externo e, se for válido, passa a usá-lo.
+     * Uma tabela inválida ou com a versão da ativa ou da anterior é recusada e
+     * a ativa é mantida: os caches e a reanálise identificam as regras pela
+     * versão, então uma versão repetida com regras diferentes reaproveitaria
+     * resultados calculados com as antigas.
+     */
+    public synchronized SituacaoRegras recarregar() {
+        File arquivo = arquivoExterno();
+        if (arquivo == null || !arquivo.exists()) {
+            throw new RuntimeException("Arquivo de regras não encontrado: " + arquivoRegras);
+        }
+        
+        ultimaModificacao = arquivo.lastModified();
+        try {
+            TabelaRegrasCompilada nova = TabelaRegrasCompilada.compilar(lerArquivo(arquivo));
+            Estado atual = estado;
+            if (nova.getVersao().equals(atual.ativa().getVersao())) {
+                throw new RuntimeException("A versão " + nova.getVersao() + " já está em uso");
+            }
+            if (atual.anterior() != null && nova.getVersao().equals(atual.anterior().getVersao())) {
+                throw new RuntimeException("A versão " + nova.getVersao() + " é a anterior; use reverter ou uma versão nova");
+            }
+            ativar(new Estado(nova, arquivo.getPath(), atual.ativa(), atual.origem(), LocalDateTime.now()));
+            ultimoErro = null;
+            ultimoErroEm = null;
+        } catch (RuntimeException e) {
+            ultimoErro = e.getMessage();
+            ultimoErroEm = LocalDateTime.now();
+            throw e;
+        }
+        return consultar();
+    }
+    
+    /**
+     * Volta para a tabela usada antes da última troca.
+     */
+    public synchronized SituacaoRegras reverter() {
+        Estado atual = estado;
+        if (atual.anterior() == null) {
+            throw new RuntimeException("Não há versão anterior das regras para reverter");
+        }
+        ativar(new Estado(atual.anterior(), atual.origemAnterior(), atual.ativa(), atual.origem(),
+                LocalDateTime.now()));
+        return consultar();
+    }
+    
+    /**
+     * Publica o novo estado, levando antes ao catálogo as mensagens que a
+     * tabela ativa trouxer, para que já estejam disponíveis na exibição.
+     * Códigos que só tabelas anteriores definiam mantêm o texto delas.
+     * Depois da troca, os resultados guardados em cache são descartados.
+     */
+    private void ativar(Estado novo) {
+        CatalogoMensagens.mesclarMensagensRegras(novo.ativa().getMensagens());
+        estado = novo;
+        for (Runnable acao : aoTrocar) {
+            acao.run();
+        }
+    }
+    
+    /**
+     * Retorna a situação da tabela de regras em uso.
+     */
+    public synchronized SituacaoRegras consultar() {
+        Estado atual = estado;
+        SituacaoRegras situacao = new SituacaoRegras();
+        situacao.setVersaoAtiva(atual.ativa().getVersao());
+        situacao.setVersaoAnterior(atual.anterior() != null ? atual.anterior().getVersao() : null);
+        situacao.setOrigem(atual.origem());
+        situacao.setTotalRegras(atual.ativa().getTotalRegras());
+        situacao.setPesos(atual.ativa().getPesos());
+        situacao.setCarregadaEm(atual.carregadaEm());
+        situacao.setUltimoErro(ultimoErro);
+        situacao.setUltimoErroEm(ultimoErroEm);
+        return situacao;
+    }
+    
+    /**
+     * Recarrega a tabela quando a data de modificação do arquivo externo muda.
+     * Se o arquivo for removido, a tabela ativa continua em uso.
+     */
+    private synchronized void verificarArquivo() {
+        File arquivo = arquivoExterno();
+        if (!arquivo.exists() || arquivo.lastModified() == ultimaModificacao) {
+            return;
+        }
+        try {
+            recarregar();
+        } catch (RuntimeException e) {
+            // Erro registrado na situação; o arquivo só é relido quando mudar de novo
+        }
+    }
+    
+    private File arquivoExterno() {
+        return arquivoRegras != null && !arquivoRegras.isBlank() ? new File(arquivoRegras) : null;
+    }
+    
+    private TabelaRegras lerArquivo(File arquivo) {
+        try {
+            return objectMapper.readValue(arquivo, TabelaRegras.class);
+        } catch (IOException e) {
+            throw new RuntimeException("Erro ao ler tabela de regras: " + e.getMessage(), e);
+        }
+    }
+    
+    private TabelaRegras lerTabelaPadrao() {
+        try (InputStream entrada = getClass().getClassLoader().getResourceAsStream(TABELA_PADRAO)) {
+            if (entrada == null) {
+                throw new RuntimeException("Tabela de regras não encontrada: " + TABELA_PADRAO);
+            }
+            return objectMapper.readValue(entrada, TabelaRegras.class);
+        } catch (IOException e) {
+            throw new RuntimeException("Erro ao carregar tabela de regras: " + e.getMessage(), e);
+        }
+    }
+}
\ No newline at end of file
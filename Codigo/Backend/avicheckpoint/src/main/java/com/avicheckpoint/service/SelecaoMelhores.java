@@ -0,0 +1,62 @@
+package com.avicheckpoint.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Seleção dos {@code quantidade} melhores itens de uma sequência, sem
+ * ordená-la inteira: um heap limitado mantém no topo o pior dos selecionados,
+ * que é trocado quando chega um item melhor. Custa O(n log k) em vez de
+ * O(n log n) e guarda só k itens. Itens equivalentes na ordem ficam na ordem
+ * de chegada, como em uma ordenação estável seguida de limite.
+ */
+class SelecaoMelhores<T> {
+    
+    private record Item<T>(T valor, long sequencia) {}
+    
+    // Capacidade inicial máxima do heap; a quantidade pode vir da requisição
+    private static final int CAPACIDADE_INICIAL = 64;
+    
+    private final int quantidade;
+    private final Comparator<Item<T>> ordem;
+    private final PriorityQueue<Item<T>> piores;
+    private long sequencia;
+    
+    /**
+     * @param ordem ordem do resultado: os primeiros nela são os melhores
+     */
+    SelecaoMelhores(int quantidade, Comparator<? super T> ordem) {
+        this.quantidade = Math.max(quantidade, 0);
+        this.ordem = Comparator.<Item<T>, T>comparing(Item::valor, ordem)
+                .thenComparingLong(Item::sequencia);
+        this.piores = new PriorityQueue<>(Math.min(this.quantidade, CAPACIDADE_INICIAL) + 1, this.ordem.reversed());
+    }
+    
+    void adicionar(T valor) {
+        if (quantidade == 0) {
+            return;
+        }
+        Item<T> item = new Item<>(valor, sequencia++);
+        if (piores.size() < quantidade) {
+            piores.add(item);
+        } else if (ordem.compare(item, piores.peek()) < 0) {
+            piores.poll();
+            piores.add(item);
+        }
+    }
+    
+    /**
+     * Os selecionados, do melhor ao pior.
+     */
+    List<T> resultado() {
+        List<Item<T>> itens = new ArrayList<>(piores);
+        itens.sort(ordem);
+        List<T> resultado = new ArrayList<>(itens.size());
+        for (Item<T> item : itens) {
+            resultado.add(item.valor());
+        }
+        return resultado;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,127 @@
+package com.avicheckpoint.service;
+
+import com.avicheckpoint.dto.MelhoriaSimuladaDTO;
+import com.avicheckpoint.dto.SimulacaoAnaliseDTO;
+import com.avicheckpoint.model.CatalogoMensagens;
+import com.avicheckpoint.model.EsquemaRespostas;
+import com.avicheckpoint.model.FormularioResposta;
+import com.avicheckpoint.model.ResultadoAnalise;
+import com.avicheckpoint.repository.FormularioRepositoryImpl;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Simulações de melhoria ("e se eu corrigir a vacinação?").
+ *
+ * As simulações avaliam o formulário com respostas hipotéticas inteiramente
+ * em memória, com a tabela de regras ativa: nada é gravado e o formulário
+ * não muda de situação.
+ */
+@Service
+public class SimulacaoService {
+    
+    @Autowired
+    private FormularioRepositoryImpl formularioRepository;
+    
+    @Autowired
+    private AnaliseService analiseService;
+    
+    @Autowired
+    private RegrasAnaliseService regrasAnaliseService;
+    
+    /**
+     * Analisa o formulário com as respostas alteradas e compara com as atuais.
+     */
+    public SimulacaoAnaliseDTO simular(String formularioId, Map<String, Map<String, Object>> alteracoes) {
+        FormularioResposta formulario = buscarFormulario(formularioId);
+        TabelaRegrasCompilada regras = regrasAnaliseService.getRegrasAtivas();
+        
+        Map<String, Object> respostas = formulario.getRespostas();
+        if (alteracoes != null) {
+            alteracoes.forEach((secao, perguntas) -> respostas.put(secao, aplicarAlteracoes(respostas.get(secao), perguntas)));
+        }
+        
+        ResultadoAnalise atual = analiseService.processarAnalise(regras, formulario.getRespostasCodificadas());
+        ResultadoAnalise simulado = analiseService.processarAnalise(regras, EsquemaRespostas.codificar(respostas));
+        
+        SimulacaoAnaliseDTO dto = new SimulacaoAnaliseDTO();
+        dto.setFormularioId(formularioId);
+        dto.setPontuacaoAtual(atual.getPontuacaoGeral());
+        dto.setPontuacaoSimulada(simulado.getPontuacaoGeral());
+        dto.setDiferenca(simulado.getPontuacaoGeral() - atual.getPontuacaoGeral());
+        dto.setResultado(CatalogoMensagens.renderizar(simulado, LocaleContextHolder.getLocale()));
+        return dto;
+    }
+    
+    /**
+     * Lista as trocas de uma única resposta que melhoram o resultado, da que
+     * mais aumenta a pontuação para a que menos aumenta. Trocas que só
+     * melhoram a composição (ex.: uma pontuação já no máximo) vêm depois.
+     * Um limite menor que 1 é rejeitado.
+     */
+    public List<MelhoriaSimuladaDTO> sugerirMelhorias(String formularioId, int limite) {
+        if (limite < 1) {
+            throw new RuntimeException("Limite de melhorias deve ser ao menos 1: " + limite);
+        }
+        FormularioResposta formulario = buscarFormulario(formularioId);
+        TabelaRegrasCompilada regras = regrasAnaliseService.getRegrasAtivas();
+        
+        ResultadoAnalise atual = analiseService.processarAnalise(regras, formulario.getRespostasCodificadas());
+        int pontosFortes = atual.getPontosFortes().size();
+        int pontosAMelhorar = atual.getMelhorias().size();
+        int alertas = atual.getAlertas().size();
+        int pontuacaoAtual = atual.getPontuacaoGeral();
+        
+        List<MelhoriaSimuladaDTO> melhorias = new ArrayList<>();
+        for (TabelaRegrasCompilada.Alternativa alternativa : regras.alternativas(formulario.getRespostasCodificadas())) {
+            if (regras.pontuacaoBruta(alternativa.pontosFortes(), alternativa.pontosAMelhorar(), alternativa.alertas()) <= 0) {
+                continue;
+            }
+            MelhoriaSimuladaDTO melhoria = new MelhoriaSimuladaDTO();
+            melhoria.setSecao(alternativa.secao());
+            melhoria.setPergunta(alternativa.pergunta());
+            melhoria.setRespostaAtual(alternativa.respostaAtual());
+            melhoria.setRespostaSugerida(alternativa.resposta());
+            melhoria.setPontuacao(regras.pontuacao(pontosFortes + alternativa.pontosFortes(),
+                    pontosAMelhorar + alternativa.pontosAMelhorar(), alertas + alternativa.alertas()));
+            melhoria.setGanho(melhoria.getPontuacao() - pontuacaoAtual);
+            melhoria.setVariacaoPontosFortes(alternativa.pontosFortes());
+            melhoria.setVariacaoPontosAMelhorar(alternativa.pontosAMelhorar());
+            melhoria.setVariacaoAlertas(alternativa.alertas());
+            melhorias.add(melhoria);
+        }
+        
+        melhorias.sort(Comparator.comparingInt(MelhoriaSimuladaDTO::getGanho)
+                .thenComparingInt((MelhoriaSimuladaDTO melhoria) -> regras.pontuacaoBruta(melhoria.getVariacaoPontosFortes(),
+                        melhoria.getVariacaoPontosAMelhorar(), melhoria.getVariacaoAlertas()))
+                .reversed());
+        return melhorias.size() > limite ? new ArrayList<>(melhorias.subList(0, limite)) : melhorias;
+    }
+    
+    private FormularioResposta buscarFormulario(String formularioId) {
+        return formularioRepository.buscarPorId(formularioId)
+                .orElseThrow(() -> new RuntimeException("Formulário não encontrado: " + formularioId));
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> aplicarAlteracoes(Object secao, Map<String, Object> perguntas) {
+        Map<String, Object> dados = secao instanceof Map ? new HashMap<>((Map<String, Object>) secao) : new HashMap<>();
+        if (perguntas != null) {
+            perguntas.forEach((pergunta, valor) -> {
+                if (valor == null) {
+                    dados.remove(pergunta);
+                } else {
+                    dados.put(pergunta, valor);
+                }
+            });
+        }
+        return dados;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,470 @@
+package com.avicheckpoint.service;
+
+import com.avicheckpoint.model.AlertaAnalise;
+import com.avicheckpoint.model.CatalogoMensagens;
+import com.avicheckpoint.model.EsquemaRespostas;
+import com.avicheckpoint.model.RegraAnalise;
+import com.avicheckpoint.model.RespostasCodificadas;
+import com.avicheckpoint.model.TabelaRegras;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Tabela de regras compilada para avaliação.
+ *
+ * As regras são agrupadas por seção e por pergunta, na ordem em que aparecem
+ * na tabela. Cada pergunta guarda um mapa da resposta para as regras que ela
+ * dispara, de modo que avaliar um formulário é uma busca por pergunta
+ * respondida, sem percorrer as regras. Imutável depois de compilada.
+ */
+final class TabelaRegrasCompilada {
+    
+    private static final RegraAnalise[] NENHUMA = new RegraAnalise[0];
+    
+    private final String versao;
+    private final TabelaRegras.Pesos pesos;
+    private final int totalRegras;
+    private final Secao[] secoes;
+    private final Map<String, String> mensagens;
+    // Seções reduzidas às perguntas com regra de alerta crítico, usadas na triagem
+    private final Secao[] triagem;
+    
+    private record Secao(String nome, Pergunta[] perguntas) {}
+    
+    /**
+     * Regras de uma pergunta. {@code exclusivas} e {@code demais} guardam, em
+     * ordem, as regras por resposta usadas quando a resposta é uma lista;
+     * {@code qualquer} guarda as regras curinga. {@code respostasOrdenadas}
+     * são as respostas que disparam alguma regra, em ordem alfabética.
+     * {@code posicao} é a posição da pergunta no esquema de respostas
+     * codificadas, ou -1 se ela só puder ser encontrada nos extras.
+     */
+    private record Pergunta(String chave, int posicao, boolean multipla, Map<String, RegraAnalise[]> porResposta,
+                            RegraAnalise[] exclusivas, RegraAnalise[] demais, RegraAnalise[] qualquer,
+                            String[] respostasOrdenadas) {}
+    
+    /**
+     * Troca da resposta de uma pergunta e a variação que ela causa no número
+     * de pontos fortes, pontos a melhorar e alertas.
+     */
+    record Alternativa(String secao, String pergunta, Object respostaAtual, Object resposta,
+                       int pontosFortes, int pontosAMelhorar, int alertas) {}
+    
+    /**
+     * Resultado parcial da avaliação das regras. As listas guardam os códigos
+     * das mensagens (ver {@link com.avicheckpoint.model.CatalogoMensagens});
+     * os alertas levam também a seção e a severidade da regra.
+     */
+    static final class Avaliacao {
+        final List<String> pontosFortes;
+        final List<String> pontosAMelhorar;
+        final List<AlertaAnalise> alertas;
+        final Set<String> profissionaisRecomendados;
+        boolean alertaCritico;
+        
+        Avaliacao() {
+            this(new ArrayList<>(), new ArrayList<>(), new ArrayList<>(), new HashSet<>(), false);
+        }
+        
+        private Avaliacao(List<String> pontosFortes, List<String> pontosAMelhorar, List<AlertaAnalise> alertas,
+                          Set<String> profissionaisRecomendados, boolean alertaCritico) {
+            this.pontosFortes = pontosFortes;
+            this.pontosAMelhorar = pontosAMelhorar;
+            this.alertas = alertas;
+            this.profissionaisRecomendados = profissionaisRecomendados;
+            this.alertaCritico = alertaCritico;
+        }
+        
+        private void aplicar(RegraAnalise regra) {
+            if (regra.getCategoria() != null) {
+                switch (regra.getCategoria()) {
+                    case PONTO_FORTE -> pontosFortes.add(regra.getCodigo());
+                    case PONTO_A_MELHORAR -> pontosAMelhorar.add(regra.getCodigo());
+                    case ALERTA -> {
+                        alertas.add(new AlertaAnalise(regra.getCodigo(), regra.getSecao(), regra.getSeveridade()));
+                        alertaCritico |= regra.getSeveridade() == AlertaAnalise.Severidade.CRITICO;
+                    }
+                }
+            }
+            profissionaisRecomendados.addAll(regra.getProfissionais());
+        }
+        
+        /**
+         * Acrescenta o resultado de outra avaliação, mantendo a ordem das regras.
+         */
+        void somar(Avaliacao parcial) {
+            pontosFortes.addAll(parcial.pontosFortes);
+            pontosAMelhorar.addAll(parcial.pontosAMelhorar);
+            alertas.addAll(parcial.alertas);
+            profissionaisRecomendados.addAll(parcial.profissionaisRecomendados);
+            alertaCritico |= parcial.alertaCritico;
+        }
+        
+        /**
+         * Cópia imutável, que pode ser guardada e somada a outras avaliações.
+         * Os profissionais mantêm a ordem de inserção, para que a soma os
+         * insira na mesma ordem de uma avaliação completa.
+         */
+        Avaliacao congelar() {
+            return new Avaliacao(List.copyOf(pontosFortes), List.copyOf(pontosAMelhorar), List.copyOf(alertas),
+                    Collections.unmodifiableSet(new LinkedHashSet<>(profissionaisRecomendados)), alertaCritico);
+        }
+    }
+    
+    private TabelaRegrasCompilada(String versao, TabelaRegras.Pesos pesos, int totalRegras, Secao[] secoes,
+                                  Map<String, String> mensagens) {
+        this.versao = versao;
+        this.pesos = pesos;
+        this.totalRegras = totalRegras;
+        this.secoes = secoes;
+        this.mensagens = mensagens;
+        
+        List<Secao> triagem = new ArrayList<>();
+        for (Secao secao : secoes) {
+            Pergunta[] criticas = Arrays.stream(secao.perguntas())
+                    .filter(TabelaRegrasCompilada::possuiAlertaCritico)
+                    .toArray(Pergunta[]::new);
+            if (criticas.length > 0) {
+                triagem.add(new Secao(secao.nome(), criticas));
+            }
+        }
+        this.triagem = triagem.toArray(new Secao[0]);
+    }
+    
+    private static boolean possuiAlertaCritico(Pergunta pergunta) {
+        return Stream.of(pergunta.exclusivas(), pergunta.demais(), pergunta.qualquer())
+                .flatMap(Arrays::stream)
+                .anyMatch(TabelaRegrasCompilada::isCritica);
+    }
+    
+    private static boolean isCritica(RegraAnalise regra) {
+        return regra.getSeveridade() == AlertaAnalise.Severidade.CRITICO;
+    }
+    
+    /**
+     * Valida e compila a tabela. Lança exceção na primeira regra inválida,
+     * para que uma tabela com erro nunca substitua a que está em uso.
+     */
+    static TabelaRegrasCompilada compilar(TabelaRegras tabela) {
+        if (tabela == null || tabela.getRegras() == null || tabela.getRegras().isEmpty()) {
+            throw new RuntimeException("Tabela de regras vazia");
+        }
+        if (tabela.getVersao() == null || tabela.getVersao().isBlank()) {
+            throw new RuntimeException("Tabela de regras sem versão");
+        }
+        TabelaRegras.Pesos pesos = tabela.getPesos() != null ? tabela.getPesos() : new TabelaRegras.Pesos();
+        if (pesos.getPontoForte() < 0 || pesos.getPontoAMelhorar() < 0 || pesos.getAlerta() < 0) {
+            throw new RuntimeException("Pesos da pontuação não podem ser negativos");
+        }
+        
+        Map<String, Map<String, List<RegraAnalise>>> agrupadas = new LinkedHashMap<>();
+        Map<String, String> mensagens = new HashMap<>();
+        int linha = 0;
+        for (RegraAnalise regra : tabela.getRegras()) {
+            linha++;
+            validar(regra, linha);
+            if (regra.getCategoria() != null && !isVazio(regra.getMensagem())) {
+                mensagens.put(regra.getCodigo(), regra.getMensagem());
+            }
+            agrupadas.computeIfAbsent(regra.getSecao(), secao -> new LinkedHashMap<>())
+                    .computeIfAbsent(regra.getPergunta(), pergunta -> new ArrayList<>())
+                    .add(regra);
+        }
+        
+        List<Secao> secoes = new ArrayList<>();
+        agrupadas.forEach((secao, perguntas) -> {
+            List<Pergunta> compiladas = new ArrayList<>();
+            perguntas.forEach((chave, regras) -> compiladas.add(compilarPergunta(secao, chave, regras)));
+            secoes.add(new Secao(secao, compiladas.toArray(new Pergunta[0])));
+        });
+        return new TabelaRegrasCompilada(tabela.getVersao(), pesos, linha, secoes.toArray(new Secao[0]), Map.copyOf(mensagens));
+    }
+    
+    private static void validar(RegraAnalise regra, int linha) {
+        if (regra == null || isVazio(regra.getSecao()) || isVazio(regra.getPergunta()) || isVazio(regra.getResposta())) {
+            throw new RuntimeException("Regra " + linha + " inválida: seção, pergunta e resposta são obrigatórias");
+        }
+        if (regra.getCategoria() != null && isVazio(regra.getCodigo())) {
+            throw new RuntimeException("Regra " + linha + " inválida: código obrigatório para a categoria " + regra.getCategoria());
+        }
+        if (regra.getCategoria() != null && isVazio(regra.getMensagem()) && !CatalogoMensagens.possui(regra.getCodigo())) {
+            throw new RuntimeException("Regra " + linha + " inválida: código " + regra.getCodigo() + " sem mensagem no catálogo");
+        }
+        if (regra.getCategoria() == null && (regra.getProfissionais() == null || regra.getProfissionais().isEmpty())) {
+            throw new RuntimeException("Regra " + linha + " inválida: sem categoria nem profissionais");
+        }
+        if (regra.getSeveridade() != null && regra.getCategoria() != RegraAnalise.Categoria.ALERTA) {
+            throw new RuntimeException("Regra " + linha + " inválida: severidade só se aplica a alertas");
+        }
+        if (regra.getCategoria() == RegraAnalise.Categoria.ALERTA && regra.getSeveridade() == null) {
+            regra.setSeveridade(AlertaAnalise.Severidade.ATENCAO);
+        }
+        if (regra.getProfissionais() == null) {
+            regra.setProfissionais(List.of());
+        }
+        if (regra.isExclusiva() && RegraAnalise.QUALQUER_RESPOSTA.equals(regra.getResposta())) {
+            throw new RuntimeException("Regra " + linha + " inválida: regra curinga não pode ser exclusiva");
+        }
+    }
+    
+    private static Pergunta compilarPergunta(String secao, String chave, List<RegraAnalise> regras) {
+        Map<String, List<RegraAnalise>> porResposta = new HashMap<>();
+        List<RegraAnalise> exclusivas = new ArrayList<>();
+        List<RegraAnalise> demais = new ArrayList<>();
+        List<RegraAnalise> qualquer = new ArrayList<>();
+        
+        for (RegraAnalise regra : regras) {
+            if (RegraAnalise.QUALQUER_RESPOSTA.equals(regra.getResposta())) {
+                qualquer.add(regra);
+                continue;
+            }
+            porResposta.computeIfAbsent(regra.getResposta(), resposta -> new ArrayList<>()).add(regra);
+            (regra.isExclusiva() ? exclusivas : demais).add(regra);
+        }
+        
+        Map<String, RegraAnalise[]> indice = new HashMap<>();
+        porResposta.forEach((resposta, lista) -> indice.put(resposta, lista.toArray(NENHUMA)));
+        String[] respostasOrdenadas = porResposta.keySet().toArray(new String[0]);
+        Arrays.sort(respostasOrdenadas);
+        int posicao = EsquemaRespostas.posicao(secao, chave);
+        boolean multipla = EsquemaRespostas.isMultipla(posicao) || !exclusivas.isEmpty();
+        return new Pergunta(chave, posicao, multipla, indice, exclusivas.toArray(NENHUMA), demais.toArray(NENHUMA),
+                qualquer.toArray(NENHUMA), respostasOrdenadas);
+    }
+    
+    /**
+     * Avalia as respostas do formulário. Seções ausentes e respostas de tipo
+     * inesperado são ignoradas. Em perguntas de múltipla escolha, se alguma
+     * regra exclusiva casar, apenas as exclusivas são aplicadas.
+     */
+    Avaliacao avaliar(RespostasCodificadas respostas) {
+        Avaliacao avaliacao = new Avaliacao();
+        for (int indice = 0; indice < secoes.length; indice++) {
+            avaliacao.somar(avaliarSecao(indice, respostas));
+        }
+        return avaliacao;
+    }
+    
+    /**
+     * Triagem das respostas: indica se elas disparam algum alerta crítico,
+     * com as mesmas regras da avaliação completa, mas consultando só as
+     * perguntas que têm regra de alerta crítico.
+     */
+    boolean temAlertaCritico(RespostasCodificadas respostas) {
+        if (respostas == null) {
+            return false;
+        }
+        boolean[] critico = new boolean[1];
+        for (Secao secao : triagem) {
+            for (Pergunta pergunta : secao.perguntas()) {
+                Object valor = respostas.valor(pergunta.posicao(), secao.nome(), pergunta.chave());
+                aplicarRegras(pergunta, valor, regra -> critico[0] |= isCritica(regra));
+                if (critico[0]) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Avalia apenas as regras de uma seção. As regras de uma seção dependem só
+     * das respostas dela, então a avaliação completa é a soma das seções, na ordem.
+     */
+    Avaliacao avaliarSecao(int indice, RespostasCodificadas respostas) {
+        Avaliacao avaliacao = new Avaliacao();
+        if (respostas == null) {
+            return avaliacao;
+        }
+        
+        Secao secao = secoes[indice];
+        for (Pergunta pergunta : secao.perguntas()) {
+            Object valor = respostas.valor(pergunta.posicao(), secao.nome(), pergunta.chave());
+            aplicarRegras(pergunta, valor, avaliacao::aplicar);
+        }
+        return avaliacao;
+    }
+    
+    /**
+     * Aplica as regras da pergunta que casam com a resposta informada.
+     */
+    private static void aplicarRegras(Pergunta pergunta, Object valor, Consumer<RegraAnalise> aplicar) {
+        boolean exclusivaAplicada = false;
+        
+        if (valor instanceof String resposta) {
+            for (RegraAnalise regra : pergunta.porResposta().getOrDefault(resposta, NENHUMA)) {
+                aplicar.accept(regra);
+                exclusivaAplicada |= regra.isExclusiva();
+            }
+        } else if (valor instanceof Collection<?> selecionadas) {
+            for (RegraAnalise regra : pergunta.exclusivas()) {
+                if (selecionadas.contains(regra.getResposta())) {
+                    aplicar.accept(regra);
+                    exclusivaAplicada = true;
+                }
+            }
+            if (!exclusivaAplicada) {
+                for (RegraAnalise regra : pergunta.demais()) {
+                    if (selecionadas.contains(regra.getResposta())) {
+                        aplicar.accept(regra);
+                    }
+                }
+            }
+        } else {
+            return;
+        }
+        
+        if (!exclusivaAplicada) {
+            for (RegraAnalise regra : pergunta.qualquer()) {
+                aplicar.accept(regra);
+            }
+        }
+    }
+    
+    /**
+     * Lista as trocas de uma única resposta que mudam o resultado, com a
+     * variação de cada uma. Como as regras de uma pergunta só dependem da
+     * resposta dela, basta reaplicar as regras da pergunta trocada: nada é
+     * reavaliado nem alocado para as demais. Em perguntas de múltipla escolha,
+     * a troca considerada é marcar apenas a resposta sugerida.
+     */
+    List<Alternativa> alternativas(RespostasCodificadas respostas) {
+        List<Alternativa> alternativas = new ArrayList<>();
+        int[] contagem = new int[3];
+        Consumer<RegraAnalise> contar = regra -> {
+            if (regra.getCategoria() != null) {
+                contagem[regra.getCategoria().ordinal()]++;
+            }
+        };
+        
+        for (Secao secao : secoes) {
+            for (Pergunta pergunta : secao.perguntas()) {
+                Object atual = respostas != null ?
+                        respostas.valor(pergunta.posicao(), secao.nome(), pergunta.chave()) : null;
+                Arrays.fill(contagem, 0);
+                aplicarRegras(pergunta, atual, contar);
+                int fortes = contagem[0];
+                int aMelhorar = contagem[1];
+                int alertas = contagem[2];
+                
+                for (String resposta : pergunta.respostasOrdenadas()) {
+                    Object sugerida = pergunta.multipla() ? List.of(resposta) : resposta;
+                    if (sugerida.equals(atual)) {
+                        continue;
+                    }
+                    Arrays.fill(contagem, 0);
+                    aplicarRegras(pergunta, sugerida, contar);
+                    if (contagem[0] != fortes || contagem[1] != aMelhorar || contagem[2] != alertas) {
+                        alternativas.add(new Alternativa(secao.nome(), pergunta.chave(), atual, sugerida,
+                                contagem[0] - fortes, contagem[1] - aMelhorar, contagem[2] - alertas));
+                    }
+                }
+            }
+        }
+        return alternativas;
+    }
+    
+    /**
+     * Chave canônica das respostas para esta tabela: duas respostas com a mesma
+     * chave produzem o mesmo resultado. Considera apenas as perguntas da tabela,
+     * ignora a ordem e as repetições em respostas de múltipla escolha e trata
+     * toda resposta sem regra própria como equivalente. Inclui a versão da tabela.
+     */
+    String chaveCanonica(RespostasCodificadas respostas) {
+        StringBuilder chave = new StringBuilder(versao);
+        for (Secao secao : secoes) {
+            anexarChave(chave, secao, respostas);
+        }
+        return chave.toString();
+    }
+    
+    /**
+     * Chave canônica restrita a uma seção, com a versão da tabela e o nome da seção.
+     */
+    String chaveSecao(int indice, RespostasCodificadas respostas) {
+        StringBuilder chave = new StringBuilder(versao).append('#').append(secoes[indice].nome());
+        anexarChave(chave, secoes[indice], respostas);
+        return chave.toString();
+    }
+    
+    private static void anexarChave(StringBuilder chave, Secao secao, RespostasCodificadas respostas) {
+        for (Pergunta pergunta : secao.perguntas()) {
+            chave.append('|');
+            Object valor = respostas != null ?
+                    respostas.valor(pergunta.posicao(), secao.nome(), pergunta.chave()) : null;
+            if (valor instanceof String resposta) {
+                if (pergunta.porResposta().containsKey(resposta)) {
+                    chave.append('=').append(resposta);
+                } else if (pergunta.qualquer().length > 0) {
+                    // Respondida, mas só as regras curinga se aplicam
+                    chave.append('*');
+                }
+            } else if (valor instanceof Collection<?> selecionadas) {
+                chave.append('[');
+                for (String resposta : pergunta.respostasOrdenadas()) {
+                    if (selecionadas.contains(resposta)) {
+                        chave.append(resposta).append(',');
+                    }
+                }
+                chave.append(']');
+            }
+        }
+    }
+    
+    /**
+     * Pontuação geral (0 a 100) para as quantidades informadas.
+     */
+    int pontuacao(int pontosFortes, int pontosAMelhorar, int alertas) {
+        return Math.max(0, Math.min(100, pontuacaoBruta(pontosFortes, pontosAMelhorar, alertas)));
+    }
+    
+    /**
+     * Pontuação antes do limite de 0 a 100. Como é linear, também dá a
+     * variação causada por uma variação nas quantidades.
+     */
+    int pontuacaoBruta(int pontosFortes, int pontosAMelhorar, int alertas) {
+        return pontosFortes * pesos.getPontoForte()
+                - pontosAMelhorar * pesos.getPontoAMelhorar()
+                - alertas * pesos.getAlerta();
+    }
+    
+    String getVersao() {
+        return versao;
+    }
+    
+    TabelaRegras.Pesos getPesos() {
+        return pesos;
+    }
+    
+    int getTotalRegras() {
+        return totalRegras;
+    }
+    
+    int getTotalSecoes() {
+        return secoes.length;
+    }
+    
+    /**
+     * Mensagens trazidas pela própria tabela, por código. Complementam ou
+     * substituem as do catálogo quando a tabela é ativada.
+     */
+    Map<String, String> getMensagens() {
+        return mensagens;
+    }
+    
+    private static boolean isVazio(String valor) {
+        return valor == null || valor.isBlank();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,159 @@
+package com.avicheckpoint.repository;
+
+import com.avicheckpoint.model.FormularioResposta;
+import com.avicheckpoint.model.ResumoFormulario;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Teste de estresse das escritas concorrentes do repositório de formulários:
+ * várias threads incluem, alteram e excluem formulários do mesmo produtor e
+ * de produtores diferentes (inclusive produtores que dividem o mesmo lock), e
+ * ao final os arquivos em disco, o índice, o manifesto e o dashboard de cada
+ * produtor devem refletir exatamente os formulários que restaram.
+ */
+class FormularioRepositoryConcorrenciaTest {
+    
+    // 1 e 65 caem no mesmo lock listrado (64 locks)
+    private static final int[] PRODUTORES = {1, 2, 3, 65};
+    private static final int THREADS = 12;
+    private static final int OPERACOES_POR_THREAD = 150;
+    
+    @TempDir
+    Path diretorio;
+    
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    
+    @Test
+    void escritasConcorrentesMantemArquivosEIndicesConsistentes() throws Exception {
+        String baseDir = diretorio.resolve("formularios").toString();
+        FormularioRepositoryImpl repositorio = new FormularioRepositoryImpl(baseDir, new GeradorIdFormulario(0));
+        
+        // Formulário disputado por todas as threads ao mesmo tempo
+        FormularioResposta disputado = repositorio.salvar(new FormularioResposta(null, PRODUTORES[0]));
+        Map<String, Integer> esperados = new ConcurrentHashMap<>();
+        esperados.put(disputado.getFormularioId(), PRODUTORES[0]);
+        
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<?>> tarefas = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            long semente = t;
+            tarefas.add(executor.submit(() -> {
+                largada.await();
+                executarOperacoes(repositorio, disputado.getFormularioId(), new Random(semente), esperados);
+                return null;
+            }));
+        }
+        largada.countDown();
+        for (Future<?> tarefa : tarefas) {
+            tarefa.get(2, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+        
+        for (int produtorId : PRODUTORES) {
+            Set<String> doProdutor = new HashSet<>();
+            esperados.forEach((formularioId, dono) -> {
+                if (dono == produtorId) {
+                    doProdutor.add(formularioId);
+                }
+            });
+            verificarProdutor(baseDir, produtorId, doProdutor, repositorio);
+        }
+        
+        // O índice global reaberto do disco deve conhecer exatamente os formulários restantes
+        FormularioRepositoryImpl reaberto = new FormularioRepositoryImpl(baseDir, new GeradorIdFormulario(0));
+        for (String formularioId : esperados.keySet()) {
+            assertTrue(reaberto.existe(formularioId), "Formulário perdido no índice global: " + formularioId);
+        }
+    }
+    
+    /**
+     * Cada thread inclui formulários próprios em produtores sorteados, altera
+     * e exclui alguns deles e regrava o formulário disputado.
+     */
+    private void executarOperacoes(FormularioRepositoryImpl repositorio, String disputadoId, Random random,
+                                   Map<String, Integer> esperados) {
+        List<FormularioResposta> proprios = new ArrayList<>();
+        for (int i = 0; i < OPERACOES_POR_THREAD; i++) {
+            int operacao = random.nextInt(10);
+            if (operacao < 5 || proprios.isEmpty()) {
+                int produtorId = PRODUTORES[random.nextInt(PRODUTORES.length)];
+                FormularioResposta formulario = repositorio.salvar(new FormularioResposta(null, produtorId));
+                esperados.put(formulario.getFormularioId(), produtorId);
+                proprios.add(formulario);
+            } else if (operacao < 7) {
+                FormularioResposta formulario = proprios.get(random.nextInt(proprios.size()));
+                formulario.adicionarSecao("saude", Map.of("vacinacao", random.nextBoolean() ? "sim" : "nao"));
+                repositorio.salvar(formulario);
+            } else if (operacao < 9) {
+                FormularioResposta formulario = proprios.remove(random.nextInt(proprios.size()));
+                assertTrue(repositorio.excluir(formulario.getFormularioId()));
+                esperados.remove(formulario.getFormularioId());
+            } else {
+                FormularioResposta disputado = repositorio.buscarPorId(disputadoId).orElseThrow();
+                repositorio.salvar(disputado);
+            }
+        }
+    }
+    
+    private void verificarProdutor(String baseDir, int produtorId, Set<String> esperados,
+                                   FormularioRepositoryImpl repositorio) throws Exception {
+        File diretorioProdutor = new File(baseDir, String.valueOf(produtorId));
+        
+        Set<String> noDisco = new HashSet<>();
+        for (File arquivo : diretorioProdutor.listFiles()) {
+            assertFalse(arquivo.getName().endsWith(".tmp"), "Temporário esquecido: " + arquivo);
+            if (FormularioRepositoryImpl.isArquivoFormulario(arquivo.getName())) {
+                FormularioResposta lido = objectMapper.readValue(arquivo, FormularioResposta.class);
+                assertEquals(produtorId, lido.getProdutorId());
+                noDisco.add(lido.getFormularioId());
+            }
+        }
+        assertEquals(esperados, noDisco, "Arquivos do produtor " + produtorId);
+        
+        List<String> indice = objectMapper.readValue(new File(diretorioProdutor, "index.json"),
+                new TypeReference<List<String>>() {});
+        assertEquals(indice.size(), new HashSet<>(indice).size(), "Entradas repetidas em index.json");
+        assertEquals(esperados, new HashSet<>(indice), "index.json do produtor " + produtorId);
+        
+        List<ResumoFormulario> resumos = objectMapper.readValue(new File(diretorioProdutor, "resumos.json"),
+                new TypeReference<List<ResumoFormulario>>() {});
+        Set<String> idsResumos = new HashSet<>();
+        for (ResumoFormulario resumo : resumos) {
+            idsResumos.add(resumo.getFormularioId());
+        }
+        assertEquals(resumos.size(), idsResumos.size(), "Resumos repetidos em resumos.json");
+        assertEquals(esperados, idsResumos, "resumos.json do produtor " + produtorId);
+        
+        assertEquals(esperados.size(), repositorio.buscarDashboard(produtorId).getTotalFormularios());
+        for (String formularioId : esperados) {
+            assertTrue(repositorio.buscarPorId(formularioId).isPresent(), "Formulário ilegível: " + formularioId);
+        }
+    }
+}
\ No newline at end of file
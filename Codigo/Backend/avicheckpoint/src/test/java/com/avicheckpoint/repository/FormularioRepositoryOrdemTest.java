@@ -0,0 +1,80 @@
+package com.avicheckpoint.repository;
+
+import com.avicheckpoint.model.FormularioResposta;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * A listagem dos formulários de um produtor deve vir do mais recente ao mais
+ * antigo mesmo quando o índice mistura IDs antigos (com a data no nome) e
+ * atuais fora da ordem de criação, ou quando é reconstruído dos arquivos.
+ */
+class FormularioRepositoryOrdemTest {
+    
+    private static final int PRODUTOR = 1;
+    private static final String ANTIGO = "form_1_2024-05-01_120000";
+    private static final String ANTIGO_REPETIDO = "form_1_2024-05-01_120000_1";
+    
+    @TempDir
+    Path diretorio;
+    
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    
+    @Test
+    void indiceForaDeOrdemListaDoMaisRecenteAoMaisAntigo() throws IOException {
+        FormularioRepositoryImpl repositorio = repositorioComFormulariosAntigos();
+        String primeiro = repositorio.salvar(new FormularioResposta(null, PRODUTOR)).getFormularioId();
+        String segundo = repositorio.salvar(new FormularioResposta(null, PRODUTOR)).getFormularioId();
+        
+        // Índice fora da ordem de criação: atuais antes dos antigos e sufixo antes da base
+        gravarIndice(List.of(primeiro, ANTIGO_REPETIDO, ANTIGO, segundo));
+        
+        assertEquals(List.of(segundo, primeiro, ANTIGO_REPETIDO, ANTIGO), idsListados(repositorio));
+    }
+    
+    @Test
+    void indiceReconstruidoListaDoMaisRecenteAoMaisAntigo() throws IOException {
+        FormularioRepositoryImpl repositorio = repositorioComFormulariosAntigos();
+        String primeiro = repositorio.salvar(new FormularioResposta(null, PRODUTOR)).getFormularioId();
+        String segundo = repositorio.salvar(new FormularioResposta(null, PRODUTOR)).getFormularioId();
+        
+        // Índice ilegível: é reconstruído a partir dos arquivos do diretório
+        Files.writeString(diretorio.resolve(PRODUTOR + "/index.json"), "{corrompido");
+        
+        assertEquals(List.of(segundo, primeiro, ANTIGO_REPETIDO, ANTIGO), idsListados(repositorio));
+    }
+    
+    private FormularioRepositoryImpl repositorioComFormulariosAntigos() throws IOException {
+        Files.createDirectories(diretorio.resolve(String.valueOf(PRODUTOR)));
+        gravarFormularioAntigo(ANTIGO, LocalDateTime.of(2024, 5, 1, 12, 0, 0));
+        gravarFormularioAntigo(ANTIGO_REPETIDO, LocalDateTime.of(2024, 5, 1, 12, 0, 0));
+        gravarIndice(List.of(ANTIGO, ANTIGO_REPETIDO));
+        return new FormularioRepositoryImpl(diretorio.toString(), new GeradorIdFormulario(0));
+    }
+    
+    private void gravarFormularioAntigo(String formularioId, LocalDateTime dataPreenchimento) throws IOException {
+        FormularioResposta formulario = new FormularioResposta(formularioId, PRODUTOR);
+        formulario.setDataPreenchimento(dataPreenchimento);
+        objectMapper.writeValue(diretorio.resolve(PRODUTOR + "/" + formularioId + ".json").toFile(), formulario);
+    }
+    
+    private void gravarIndice(List<String> indice) throws IOException {
+        objectMapper.writeValue(diretorio.resolve(PRODUTOR + "/index.json").toFile(), indice);
+    }
+    
+    private List<String> idsListados(FormularioRepositoryImpl repositorio) {
+        return repositorio.buscarPorProdutor(PRODUTOR).stream()
+                .map(FormularioResposta::getFormularioId)
+                .toList();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,52 @@
+package com.avicheckpoint.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Ordem de criação entre IDs atuais e IDs antigos (com a data no nome),
+ * usada para reconstruir e ordenar os índices dos produtores.
+ */
+class GeradorIdFormularioTest {
+    
+    @Test
+    void idsAtuaisSeguemAOrdemDeGeracao() {
+        GeradorIdFormulario gerador = new GeradorIdFormulario(3);
+        List<String> gerados = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            gerados.add("form_1_" + gerador.proximo());
+        }
+        List<String> embaralhados = new ArrayList<>(gerados);
+        Collections.shuffle(embaralhados, new Random(1));
+        embaralhados.sort(GeradorIdFormulario.ORDEM_CRIACAO);
+        
+        assertEquals(gerados, embaralhados);
+        long instante = GeradorIdFormulario.instanteCriacao(gerados.get(0));
+        assertTrue(Math.abs(System.currentTimeMillis() - instante) < 60_000, "instante decodificado: " + instante);
+    }
+    
+    @Test
+    void idsAntigosVemAntesDosAtuaisEmOrdemDeData() {
+        String atual = "form_1_" + new GeradorIdFormulario(0).proximo();
+        List<String> esperados = List.of(
+                "form_1_2024-05-01_120000",
+                "form_1_2024-05-01_120000_1",
+                "form_1_2024-05-01_120000_2",
+                "form_1_2024-05-01_120000_10",
+                "form_1_2024-05-01_120001",
+                "form_1_2024-11-30_080000",
+                atual);
+        List<String> indice = new ArrayList<>(esperados);
+        Collections.reverse(indice);
+        indice.sort(GeradorIdFormulario.ORDEM_CRIACAO);
+        
+        assertEquals(esperados, indice);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,70 @@
+package com.avicheckpoint.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Executa os benchmarks JMH da recomendação e da seleção dos melhores e
+ * grava o relatório em target/jmh-resultados.json. Só roda quando pedido:
+ * mvn test -Dtest=BenchmarksTest -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class BenchmarksTest {
+    
+    private static final String RELATORIO = "target/jmh-resultados.json";
+    
+    @Test
+    void executarBenchmarks() throws Exception {
+        Options opcoes = new OptionsBuilder()
+                .include(RecomendacaoBenchmark.class.getName())
+                .include(SelecaoMelhoresBenchmark.class.getName())
+                .shouldFailOnError(true)
+                .resultFormat(ResultFormatType.JSON)
+                .result(RELATORIO)
+                .build();
+        Collection<RunResult> resultados = new Runner(opcoes).run();
+        
+        // Tempo médio (ms) por benchmark e parâmetros
+        Map<String, Double> tempos = new HashMap<>();
+        for (RunResult resultado : resultados) {
+            String metodo = resultado.getParams().getBenchmark();
+            String chave = metodo.substring(metodo.lastIndexOf('.') + 1) + parametros(resultado);
+            double tempo = resultado.getPrimaryResult().getScore();
+            assertTrue(tempo > 0, chave);
+            tempos.put(chave, tempo);
+        }
+        
+        // 2 métodos x 2 tamanhos na recomendação; 2 métodos x 4 combinações na seleção
+        assertEquals(12, tempos.size(), tempos.toString());
+        for (String tamanho : new String[] {"10000", "100000"}) {
+            assertNotNull(tempos.get("recomendarVeterinarios/totalVeterinarios=" + tamanho));
+            assertNotNull(tempos.get("recomendarPorProblemas/totalVeterinarios=" + tamanho));
+            for (String quantidade : new String[] {"5", "50"}) {
+                String parametros = "/quantidade=" + quantidade + "/total=" + tamanho;
+                assertTrue(tempos.get("heap" + parametros) < tempos.get("ordenacaoCompleta" + parametros),
+                        "heap mais lento que a ordenação completa em " + parametros);
+            }
+        }
+    }
+    
+    private static String parametros(RunResult resultado) {
+        StringBuilder parametros = new StringBuilder();
+        for (String chave : resultado.getParams().getParamsKeys()) {
+            parametros.append('/').append(chave).append('=').append(resultado.getParams().getParam(chave));
+        }
+        return parametros.toString();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,157 @@
+package com.avicheckpoint.service;
+
+import com.avicheckpoint.dto.VeterinarioRecomendadoDTO;
+import com.avicheckpoint.model.Endereco;
+import com.avicheckpoint.model.FormularioResposta;
+import com.avicheckpoint.model.Geolocalizacao;
+import com.avicheckpoint.model.Produtor;
+import com.avicheckpoint.model.ResultadoAnalise;
+import com.avicheckpoint.model.StatusFormulario;
+import com.avicheckpoint.model.Veterinario;
+import com.avicheckpoint.repository.FormularioRepositoryImpl;
+import com.avicheckpoint.repository.GeradorIdFormulario;
+import com.avicheckpoint.repository.ProdutorRepositoryImpl;
+import com.avicheckpoint.repository.VeterinarioRepositoryImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark da recomendação de veterinários sobre repositórios reais, com
+ * 10 mil e 100 mil veterinários espalhados em torno do produtor. Mede o
+ * caminho completo do serviço: busca no índice espacial, pontuação pelos
+ * perfis, seleção dos melhores e leitura dos cadastros escolhidos.
+ * Executado por {@link BenchmarksTest}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(1)
+public class RecomendacaoBenchmark {
+    
+    // Posição do produtor; os veterinários ficam em um retângulo de cerca de 220 x 300 km em volta dele
+    private static final double LATITUDE_PRODUTOR = -27.0;
+    private static final double LONGITUDE_PRODUTOR = -49.5;
+    
+    private static final String[] BIOS = {
+        "Atendimento de aves de postura e frangos de corte",
+        "Clínica de bovinos e equinos",
+        "Nutrição animal e manejo de granjas",
+        "Sanidade avícola, vacinação e biosseguridade",
+        "Pequenos animais"
+    };
+    
+    @Param({"10000", "100000"})
+    public int totalVeterinarios;
+    
+    private Path diretorio;
+    private VeterinarioRepositoryImpl veterinarioRepository;
+    private ProdutorRepositoryImpl produtorRepository;
+    private RecomendacaoService recomendacaoService;
+    private Integer produtorId;
+    
+    @Setup(Level.Trial)
+    public void preparar() throws IOException {
+        diretorio = Files.createTempDirectory("recomendacao-benchmark");
+        Geolocalizacao.carregar(diretorio.resolve("geo/tabela-geografica.bin"));
+        
+        // O snapshot é gravado direto, para não passar cada inclusão pelo log
+        Path arquivoVeterinarios = diretorio.resolve("usuarios/veterinarios.json");
+        Files.createDirectories(arquivoVeterinarios.getParent());
+        new ObjectMapper().writeValue(arquivoVeterinarios.toFile(), veterinarios(totalVeterinarios));
+        veterinarioRepository = new VeterinarioRepositoryImpl(arquivoVeterinarios.toString());
+        
+        produtorRepository = new ProdutorRepositoryImpl(diretorio.resolve("usuarios/produtores.json").toString());
+        Produtor produtor = new Produtor();
+        produtor.setUsuarioNomeCompleto("Produtor");
+        produtor.setUsuarioEmail("produtor@avicheckpoint.com");
+        produtor.setEndereco(endereco("SC", LATITUDE_PRODUTOR, LONGITUDE_PRODUTOR));
+        produtorId = produtorRepository.salvar(produtor).getUsuarioId();
+        
+        // Última análise com alerta crítico e pontuação baixa, que pesam na pontuação
+        FormularioRepositoryImpl formularioRepository = new FormularioRepositoryImpl(
+                diretorio.resolve("formularios").toString(), new GeradorIdFormulario(0));
+        FormularioResposta formulario = new FormularioResposta(null, produtorId);
+        ResultadoAnalise resultado = new ResultadoAnalise();
+        resultado.setPontuacaoGeral(40);
+        resultado.setTemAlertasCriticos(true);
+        formulario.setResultado(resultado);
+        formulario.setStatus(StatusFormulario.ANALISADO);
+        formularioRepository.salvar(formulario);
+        
+        recomendacaoService = new RecomendacaoService();
+        ReflectionTestUtils.setField(recomendacaoService, "veterinarioRepository", veterinarioRepository);
+        ReflectionTestUtils.setField(recomendacaoService, "produtorRepository", produtorRepository);
+        ReflectionTestUtils.setField(recomendacaoService, "formularioRepository", formularioRepository);
+        
+        if (recomendarVeterinarios().size() != 5 || recomendarPorProblemas().isEmpty()) {
+            throw new IllegalStateException("Massa de dados não produz recomendações");
+        }
+    }
+    
+    @TearDown(Level.Trial)
+    public void encerrar() throws IOException {
+        veterinarioRepository.encerrar();
+        produtorRepository.encerrar();
+        FileSystemUtils.deleteRecursively(diretorio);
+    }
+    
+    @Benchmark
+    public List<VeterinarioRecomendadoDTO> recomendarVeterinarios() {
+        return recomendacaoService.recomendarVeterinarios(produtorId);
+    }
+    
+    @Benchmark
+    public List<VeterinarioRecomendadoDTO> recomendarPorProblemas() {
+        return recomendacaoService.recomendarPorProblemas(produtorId, List.of("aves", "vacinação"));
+    }
+    
+    private static List<Veterinario> veterinarios(int total) {
+        Random aleatorio = new Random(42);
+        List<Veterinario> veterinarios = new ArrayList<>(total);
+        for (int id = 1; id <= total; id++) {
+            Veterinario veterinario = new Veterinario();
+            veterinario.setUsuarioId(id);
+            veterinario.setUsuarioNomeCompleto("Veterinário " + id);
+            veterinario.setUsuarioEmail("vet" + id + "@avicheckpoint.com");
+            veterinario.setFormacao("Medicina Veterinária");
+            veterinario.setBio(BIOS[aleatorio.nextInt(BIOS.length)]);
+            veterinario.setEndereco(endereco(aleatorio.nextBoolean() ? "SC" : "PR",
+                    LATITUDE_PRODUTOR - 1 + aleatorio.nextDouble() * 2,
+                    LONGITUDE_PRODUTOR - 1.5 + aleatorio.nextDouble() * 3));
+            veterinarios.add(veterinario);
+        }
+        return veterinarios;
+    }
+    
+    private static Endereco endereco(String estado, double latitude, double longitude) {
+        Endereco endereco = new Endereco();
+        endereco.setEstado(estado);
+        endereco.setLatitude(latitude);
+        endereco.setLongitude(longitude);
+        return endereco;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,72 @@
+package com.avicheckpoint.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Seleção por heap comparada à ordenação completa seguida de limite, com a
+ * ordem usada na recomendação (pontuação e distância). Executado por
+ * {@link BenchmarksTest}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(1)
+public class SelecaoMelhoresBenchmark {
+    
+    private record Candidato(int pontuacao, double distanciaKm) {}
+    
+    private static final Comparator<Candidato> ORDEM = Comparator.comparingInt(Candidato::pontuacao).reversed()
+            .thenComparingDouble(Candidato::distanciaKm);
+    
+    @Param({"10000", "100000"})
+    public int total;
+    
+    @Param({"5", "50"})
+    public int quantidade;
+    
+    private List<Candidato> candidatos;
+    
+    @Setup(Level.Trial)
+    public void preparar() {
+        Random aleatorio = new Random(7);
+        candidatos = new ArrayList<>(total);
+        for (int i = 0; i < total; i++) {
+            candidatos.add(new Candidato(aleatorio.nextInt(101), aleatorio.nextDouble() * 500));
+        }
+        if (!heap().equals(ordenacaoCompleta())) {
+            throw new IllegalStateException("Seleção difere da ordenação completa");
+        }
+    }
+    
+    @Benchmark
+    public List<Candidato> heap() {
+        SelecaoMelhores<Candidato> selecao = new SelecaoMelhores<>(quantidade, ORDEM);
+        candidatos.forEach(selecao::adicionar);
+        return selecao.resultado();
+    }
+    
+    @Benchmark
+    public List<Candidato> ordenacaoCompleta() {
+        return candidatos.stream().sorted(ORDEM).limit(quantidade).collect(Collectors.toList());
+    }
+}
\ No newline at end of file
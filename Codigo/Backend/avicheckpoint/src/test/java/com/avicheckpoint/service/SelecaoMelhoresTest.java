@@ -0,0 +1,75 @@
+package com.avicheckpoint.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * A seleção deve dar o mesmo resultado que uma ordenação estável seguida de
+ * limite, inclusive com empates, com mais vagas que itens e sem vagas.
+ */
+class SelecaoMelhoresTest {
+    
+    // Pontuação maior primeiro; a posição só identifica o item
+    private record Item(int pontuacao, int posicao) {}
+    
+    private static final Comparator<Item> ORDEM = Comparator.comparingInt(Item::pontuacao).reversed();
+    
+    @Test
+    void empatesFicamNaOrdemDeChegada() {
+        List<Item> itens = List.of(new Item(5, 0), new Item(7, 1), new Item(5, 2), new Item(7, 3),
+                new Item(5, 4), new Item(1, 5), new Item(7, 6));
+        
+        assertEquals(List.of(new Item(7, 1), new Item(7, 3), new Item(7, 6), new Item(5, 0)), selecionar(itens, 4));
+        assertEquals(List.of(new Item(7, 1), new Item(7, 3)), selecionar(itens, 2));
+    }
+    
+    @Test
+    void coincideComOrdenacaoEstavelSeguidaDeLimite() {
+        Random aleatorio = new Random(42);
+        for (int rodada = 0; rodada < 200; rodada++) {
+            int total = aleatorio.nextInt(300);
+            List<Item> itens = new ArrayList<>(total);
+            for (int i = 0; i < total; i++) {
+                // Poucas pontuações distintas, para forçar empates
+                itens.add(new Item(aleatorio.nextInt(10), i));
+            }
+            int quantidade = aleatorio.nextInt(40) + 1;
+            assertEquals(ordenarELimitar(itens, quantidade), selecionar(itens, quantidade));
+        }
+    }
+    
+    @Test
+    void quantidadeMaiorQueOsItensDevolveTodosOrdenados() {
+        List<Item> itens = List.of(new Item(2, 0), new Item(9, 1), new Item(2, 2));
+        
+        assertEquals(List.of(new Item(9, 1), new Item(2, 0), new Item(2, 2)), selecionar(itens, 10));
+        assertTrue(selecionar(List.of(), 10).isEmpty());
+    }
+    
+    @Test
+    void quantidadeZeroOuNegativaNaoSelecionaNada() {
+        List<Item> itens = List.of(new Item(2, 0), new Item(9, 1));
+        
+        assertTrue(selecionar(itens, 0).isEmpty());
+        assertTrue(selecionar(itens, -1).isEmpty());
+        assertTrue(selecionar(itens, Integer.MIN_VALUE).isEmpty());
+    }
+    
+    static List<Item> selecionar(List<Item> itens, int quantidade) {
+        SelecaoMelhores<Item> selecao = new SelecaoMelhores<>(quantidade, ORDEM);
+        itens.forEach(selecao::adicionar);
+        return selecao.resultado();
+    }
+    
+    static List<Item> ordenarELimitar(List<Item> itens, int quantidade) {
+        return itens.stream().sorted(ORDEM).limit(Math.max(quantidade, 0)).collect(Collectors.toList());
+    }
+}
\ No newline at end of file